@@ -0,0 +1,262 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016, Max Roncace <me@caseif.net>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.caseif.flint.steel.benchmark;
+
+import net.caseif.flint.FlintCore;
+import net.caseif.flint.arena.Arena;
+import net.caseif.flint.round.LifecycleStage;
+import net.caseif.flint.round.Round;
+import net.caseif.flint.steel.SteelCore;
+import net.caseif.flint.steel.SteelMain;
+import net.caseif.flint.steel.arena.SteelArena;
+import net.caseif.flint.steel.benchmark.mock.MockServer;
+import net.caseif.flint.steel.minigame.SteelMinigame;
+import net.caseif.flint.steel.util.file.DataFiles;
+import net.caseif.flint.util.physical.Boundary;
+import net.caseif.flint.util.physical.Location3D;
+
+import com.google.common.collect.ImmutableSet;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.PluginDescriptionFile;
+import org.bukkit.plugin.PluginLogger;
+import org.bukkit.plugin.java.JavaPlugin;
+import sun.misc.Unsafe;
+
+import java.io.File;
+import java.io.InputStreamReader;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A running Steel instance on a {@link MockServer}, populated with a
+ * minigame, a number of arenas each hosting a round, and a number of players
+ * spread across those rounds.
+ */
+public final class BenchmarkEnvironment {
+
+    public static final String WORLD_NAME = "world";
+
+    public static final int ARENA_SIZE = 64;
+    public static final int ARENA_HEIGHT = 128;
+    private static final int ARENA_SPACING = ARENA_SIZE * 2;
+
+    private static File root;
+    private static int environmentCount;
+
+    private final MockServer server;
+    private final World world;
+    private final double originZ;
+    private final SteelMinigame minigame;
+    private final List<SteelArena> arenas = new ArrayList<>();
+    private final List<Player> players = new ArrayList<>();
+
+    private BenchmarkEnvironment(MockServer server, int arenaCount, int playerCount) {
+        this.server = server;
+        this.world = server.getOrCreateWorld(WORLD_NAME);
+
+        // Flint does not allow minigames to be unregistered, so each environment gets its own
+        String name = "Benchmark" + (++environmentCount);
+        // environments share the world, so each gets its own row of arenas to keep their boundaries disjoint
+        originZ = (environmentCount - 1) * ARENA_SPACING;
+        server.createPlugin(name, new File(root, name));
+        minigame = (SteelMinigame) FlintCore.registerPlugin(name);
+
+        for (int i = 0; i < arenaCount; i++) {
+            double x = i * ARENA_SPACING;
+            SteelArena arena = (SteelArena) minigame.createArena("arena" + i,
+                    new Location3D(WORLD_NAME, x + ARENA_SIZE / 2, ARENA_HEIGHT / 2, originZ + ARENA_SIZE / 2),
+                    new Boundary(new Location3D(WORLD_NAME, x, 0, originZ),
+                            new Location3D(WORLD_NAME, x + ARENA_SIZE, ARENA_HEIGHT, originZ + ARENA_SIZE)));
+            arena.createRound(ImmutableSet.of(new LifecycleStage("playing", -1)));
+            arenas.add(arena);
+        }
+
+        for (int i = 0; i < playerCount; i++) {
+            Player player = server.addPlayer(name + "_" + i, getLocation(i % arenaCount, i % ARENA_SIZE,
+                    ARENA_HEIGHT / 2, (i / ARENA_SIZE) % ARENA_SIZE));
+            players.add(player);
+            arenas.get(i % arenaCount).getRound().get().addChallenger(player.getUniqueId());
+        }
+    }
+
+    /**
+     * Creates a new {@link BenchmarkEnvironment}, bootstrapping Steel on a
+     * {@link MockServer} first if necessary.
+     *
+     * @param arenaCount The number of arenas to create
+     * @param playerCount The number of players to create and distribute
+     *     across the arenas' rounds
+     * @return The new {@link BenchmarkEnvironment}
+     * @throws Exception If Steel cannot be bootstrapped
+     */
+    public static synchronized BenchmarkEnvironment create(int arenaCount, int playerCount) throws Exception {
+        MockServer server = MockServer.install();
+        if (root == null) {
+            root = Files.createTempDirectory("steel-benchmark").toFile();
+            bootstrapSteel(server);
+            Runtime.getRuntime().addShutdownHook(new Thread() {
+                @Override
+                public void run() {
+                    delete(root);
+                }
+            });
+        }
+        return new BenchmarkEnvironment(server, arenaCount, playerCount);
+    }
+
+    /**
+     * Gets the directory holding the data folders of Steel and all benchmark
+     * minigames.
+     *
+     * @return The root data directory, or {@code null} if no environment has
+     *     been created yet
+     */
+    public static File getRoot() {
+        return root;
+    }
+
+    public MockServer getServer() {
+        return server;
+    }
+
+    public World getWorld() {
+        return world;
+    }
+
+    public SteelMinigame getMinigame() {
+        return minigame;
+    }
+
+    public List<SteelArena> getArenas() {
+        return Collections.unmodifiableList(arenas);
+    }
+
+    public List<Player> getPlayers() {
+        return Collections.unmodifiableList(players);
+    }
+
+    /**
+     * Gets the location at the given offset within an arena.
+     *
+     * @param arena The index of the arena
+     * @param x The x-offset from the arena's lower bound
+     * @param y The y-offset from the arena's lower bound
+     * @param z The z-offset from the arena's lower bound
+     * @return The {@link Location}
+     */
+    public Location getLocation(int arena, int x, int y, int z) {
+        return new Location(world, arena * ARENA_SPACING + x, y, originZ + z);
+    }
+
+    /**
+     * Gets the block location with the given index in a sequence of distinct
+     * locations spread round-robin across the first {@code arenaCount}
+     * arenas.
+     *
+     * @param index The index of the location, less than
+     *     {@code arenaCount * ARENA_SIZE * ARENA_SIZE * ARENA_HEIGHT}
+     * @param arenaCount The number of arenas to spread locations across
+     * @return The {@link Location}
+     */
+    public Location getDistinctLocation(int index, int arenaCount) {
+        int offset = index / arenaCount;
+        return getLocation(index % arenaCount, offset % ARENA_SIZE,
+                offset / (ARENA_SIZE * ARENA_SIZE), (offset / ARENA_SIZE) % ARENA_SIZE);
+    }
+
+    /**
+     * Ends all rounds and removes all players created by this
+     * {@link BenchmarkEnvironment}.
+     */
+    public void close() {
+        for (Arena arena : arenas) {
+            if (arena.getRound().isPresent()) {
+                Round round = arena.getRound().get();
+                round.end(false);
+            }
+        }
+        for (Player player : players) {
+            server.removePlayer(player);
+        }
+        server.cancelAllTasks();
+    }
+
+    // JavaPlugin refuses to be constructed outside of a plugin class loader, so the instance is assembled by hand
+    private static void bootstrapSteel(MockServer server) throws Exception {
+        Field unsafeField = Unsafe.class.getDeclaredField("theUnsafe");
+        unsafeField.setAccessible(true);
+        SteelMain plugin = (SteelMain) ((Unsafe) unsafeField.get(null)).allocateInstance(SteelMain.class);
+
+        File dataFolder = new File(root, "Steel");
+        YamlConfiguration config;
+        try (InputStreamReader reader = new InputStreamReader(SteelMain.class.getResourceAsStream("/config.yml"),
+                StandardCharsets.UTF_8)) {
+            config = YamlConfiguration.loadConfiguration(reader);
+        }
+        setField(JavaPlugin.class, plugin, "server", server.getServer());
+        setField(JavaPlugin.class, plugin, "description",
+                new PluginDescriptionFile("Steel", "benchmark", SteelMain.class.getName()));
+        setField(JavaPlugin.class, plugin, "dataFolder", dataFolder);
+        setField(JavaPlugin.class, plugin, "configFile", new File(dataFolder, "config.yml"));
+        setField(JavaPlugin.class, plugin, "newConfig", config);
+        setField(JavaPlugin.class, plugin, "isEnabled", true);
+        setField(JavaPlugin.class, plugin, "logger", new PluginLogger(plugin));
+        setField(SteelMain.class, null, "instance", plugin);
+        server.addPlugin(plugin);
+
+        Method initialize = SteelCore.class.getDeclaredMethod("initialize");
+        initialize.setAccessible(true);
+        initialize.invoke(null);
+
+        DataFiles.createCoreDataFiles();
+        Class.forName("org.sqlite.JDBC");
+        plugin.registerEvents();
+    }
+
+    private static void setField(Class<?> owner, Object target, String name, Object value) throws Exception {
+        Field field = owner.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        //noinspection ResultOfMethodCallIgnored
+        file.delete();
+    }
+
+}
@@ -0,0 +1,83 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016, Max Roncace <me@caseif.net>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.caseif.flint.steel.benchmark;
+
+import net.caseif.flint.steel.benchmark.mock.MockServer;
+import net.caseif.flint.steel.util.helper.InventoryHelper;
+
+import org.bukkit.Material;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.inventory.ItemStack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the serialization of inventories, as performed when players
+ * join rounds and when container state is logged for rollback.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class InventoryBenchmark {
+
+    @Param({"9", "36", "54"})
+    public int size;
+
+    @Param({"0.5", "1.0"})
+    public double fill;
+
+    private ItemStack[] contents;
+
+    @Setup
+    public void setUp() {
+        MockServer.install(); // item serialization consults the item factory
+        contents = new ItemStack[size];
+        Material[] materials = Material.values();
+        for (int i = 0; i < (int) (size * fill); i++) {
+            contents[i] = new ItemStack(materials[1 + i % (materials.length - 1)], 1 + i % 64);
+        }
+    }
+
+    @Benchmark
+    public ConfigurationSection serializeInventory() {
+        return InventoryHelper.serializeInventory(contents);
+    }
+
+    @Benchmark
+    public String serializeInventoryToYaml() {
+        YamlConfiguration yaml = new YamlConfiguration();
+        yaml.set("inventory", InventoryHelper.serializeInventory(contents));
+        return yaml.saveToString();
+    }
+
+}
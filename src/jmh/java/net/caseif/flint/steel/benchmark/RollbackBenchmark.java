@@ -0,0 +1,128 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016, Max Roncace <me@caseif.net>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.caseif.flint.steel.benchmark;
+
+import net.caseif.flint.steel.benchmark.mock.MockServer;
+import net.caseif.flint.steel.util.helper.rollback.RollbackHelper;
+
+import org.bukkit.Location;
+import org.bukkit.block.BlockState;
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the steady-state cost of block changes which need no new
+ * rollback record: changes to blocks which have already been logged during
+ * the round and changes outside of any arena.
+ *
+ * <p>The cost of logging a block for the first time is measured by
+ * {@link RollbackFirstWriteBenchmark} and the cost of spilling the journal to
+ * disk by {@link RollbackSpillBenchmark}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RollbackBenchmark {
+
+    // must be a power of two
+    private static final int LOCATION_COUNT = 1 << 16;
+
+    static final Event EVENT = new BenchmarkEvent();
+
+    @Param({"1", "8", "32"})
+    public int arenaCount;
+
+    @Param({"PLAIN", "SIGN", "CHEST"})
+    public MockServer.BlockKind kind;
+
+    private BenchmarkEnvironment env;
+
+    private final Location[] locations = new Location[LOCATION_COUNT];
+    private final BlockState[] states = new BlockState[LOCATION_COUNT];
+    private Location outsideLocation;
+    private BlockState outsideState;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        env = BenchmarkEnvironment.create(arenaCount, 0);
+        Random random = new Random(0);
+        for (int i = 0; i < LOCATION_COUNT; i++) {
+            locations[i] = env.getLocation(random.nextInt(arenaCount), random.nextInt(BenchmarkEnvironment.ARENA_SIZE),
+                    random.nextInt(BenchmarkEnvironment.ARENA_HEIGHT), random.nextInt(BenchmarkEnvironment.ARENA_SIZE));
+            states[i] = env.getServer().createState(kind, locations[i]);
+        }
+        // claim every location up front so that only the already-claimed path is measured
+        for (int i = 0; i < LOCATION_COUNT; i++) {
+            RollbackHelper.checkBlockChange(locations[i], states[i], EVENT);
+        }
+        outsideLocation = env.getLocation(arenaCount, BenchmarkEnvironment.ARENA_SIZE * 2, 0, 0);
+        outsideState = env.getServer().createState(kind, outsideLocation);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        env.close();
+    }
+
+    @Benchmark
+    public void checkBlockChangeAlreadyLogged() {
+        int i = next++ & (LOCATION_COUNT - 1);
+        RollbackHelper.checkBlockChange(locations[i], states[i], EVENT);
+    }
+
+    @Benchmark
+    public void checkBlockChangeOutsideArenas() {
+        RollbackHelper.checkBlockChange(outsideLocation, outsideState, EVENT);
+    }
+
+    static class BenchmarkEvent extends Event {
+
+        private static final HandlerList HANDLERS = new HandlerList();
+
+        @Override
+        public HandlerList getHandlers() {
+            return HANDLERS;
+        }
+
+        public static HandlerList getHandlerList() {
+            return HANDLERS;
+        }
+
+    }
+
+}
@@ -0,0 +1,107 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016, Max Roncace <me@caseif.net>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.caseif.flint.steel.benchmark;
+
+import net.caseif.flint.steel.arena.SteelArena;
+import net.caseif.flint.steel.benchmark.mock.MockServer;
+import net.caseif.flint.steel.util.helper.rollback.RollbackHelper;
+
+import org.bukkit.Location;
+import org.bukkit.block.BlockState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the cost of logging block changes to blocks which have not yet
+ * been logged during the round.
+ *
+ * <p>Each iteration is a single batch of {@value #BATCH_SIZE} changes to
+ * distinct blocks, which is below the journal's spill threshold, so the
+ * reported time covers claiming, serializing and journaling in memory only.
+ * Journals are discarded between iterations.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, batchSize = RollbackFirstWriteBenchmark.BATCH_SIZE)
+@Measurement(iterations = 20, batchSize = RollbackFirstWriteBenchmark.BATCH_SIZE)
+public class RollbackFirstWriteBenchmark {
+
+    // must not exceed the default rollback-journal-threshold
+    static final int BATCH_SIZE = 8192;
+
+    @Param({"1", "8", "32"})
+    public int arenaCount;
+
+    @Param({"PLAIN", "SIGN", "CHEST"})
+    public MockServer.BlockKind kind;
+
+    private BenchmarkEnvironment env;
+
+    private final Location[] locations = new Location[BATCH_SIZE];
+    private final BlockState[] states = new BlockState[BATCH_SIZE];
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        env = BenchmarkEnvironment.create(arenaCount, 0);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            locations[i] = env.getDistinctLocation(i, arenaCount);
+            states[i] = env.getServer().createState(kind, locations[i]);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void resetJournals() throws SQLException {
+        for (SteelArena arena : env.getArenas()) {
+            arena.getRollbackHelper().discardJournal();
+        }
+        next = 0;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        env.close();
+    }
+
+    @Benchmark
+    public void checkBlockChangeFirstWrite() {
+        int i = next++;
+        RollbackHelper.checkBlockChange(locations[i], states[i], RollbackBenchmark.EVENT);
+    }
+
+}
@@ -0,0 +1,105 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016, Max Roncace <me@caseif.net>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.caseif.flint.steel.benchmark;
+
+import net.caseif.flint.steel.SteelMain;
+import net.caseif.flint.steel.arena.SteelArena;
+import net.caseif.flint.steel.benchmark.mock.MockServer;
+import net.caseif.flint.steel.util.helper.rollback.RollbackHelper;
+
+import org.bukkit.Location;
+import org.bukkit.block.BlockState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the cost of the block change which pushes an arena's journal
+ * over its threshold and spills it to the rollback store.
+ *
+ * <p>Before each iteration the journal is discarded and refilled to exactly
+ * the threshold outside of the measurement, so each measured invocation
+ * performs one full synchronous spill.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+public class RollbackSpillBenchmark {
+
+    @Param({"PLAIN", "SIGN", "CHEST"})
+    public MockServer.BlockKind kind;
+
+    private BenchmarkEnvironment env;
+    private SteelArena arena;
+
+    private Location[] locations;
+    private BlockState[] states;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        env = BenchmarkEnvironment.create(1, 0);
+        arena = env.getArenas().get(0);
+        int threshold = SteelMain.getInstance().getConfig().getInt("rollback-journal-threshold", 10000);
+        locations = new Location[threshold + 1];
+        states = new BlockState[threshold + 1];
+        for (int i = 0; i < locations.length; i++) {
+            locations[i] = env.getDistinctLocation(i, 1);
+            states[i] = env.getServer().createState(kind, locations[i]);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void fillJournal() throws SQLException {
+        arena.getRollbackHelper().discardJournal();
+        for (int i = 0; i < locations.length - 1; i++) {
+            RollbackHelper.checkBlockChange(locations[i], states[i], RollbackBenchmark.EVENT);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        env.close();
+    }
+
+    @Benchmark
+    public void checkBlockChangeSpill() {
+        int i = locations.length - 1;
+        RollbackHelper.checkBlockChange(locations[i], states[i], RollbackBenchmark.EVENT);
+    }
+
+}
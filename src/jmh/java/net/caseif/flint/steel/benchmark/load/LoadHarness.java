@@ -0,0 +1,379 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016, Max Roncace <me@caseif.net>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.caseif.flint.steel.benchmark.load;
+
+import net.caseif.flint.challenger.Challenger;
+import net.caseif.flint.round.LifecycleStage;
+import net.caseif.flint.round.Round;
+import net.caseif.flint.steel.arena.SteelArena;
+import net.caseif.flint.steel.benchmark.BenchmarkEnvironment;
+import net.caseif.flint.steel.benchmark.mock.MockServer;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.block.Block;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.EntityType;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Event;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.entity.EntityDamageByEntityEvent;
+import org.bukkit.event.entity.EntityDamageEvent;
+import org.bukkit.event.entity.EntityExplodeEvent;
+import org.bukkit.event.player.AsyncPlayerChatEvent;
+import org.bukkit.inventory.ItemStack;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Headless load generator which runs Steel on a {@link MockServer} and feeds
+ * it synthetic gameplay.
+ *
+ * <p>Each tick, the harness advances the server's scheduler (and thereby
+ * every round's timer) and then posts block, explosion, chat and damage
+ * events through the server's plugin manager, where they reach Steel's real
+ * listeners. Challengers are periodically removed from and re-added to their
+ * rounds, and all rounds are ended with a rollback and recreated every
+ * {@link LoadScenario#roundLength} ticks.</p>
+ *
+ * <p>Scenarios are named on the command line; the report for each is printed
+ * and written as JSON to the directory given by the {@code steel.load.output}
+ * system property.</p>
+ */
+public class LoadHarness {
+
+    private static final String OUTPUT_PROPERTY = "steel.load.output";
+    private static final String DEFAULT_OUTPUT = "build/reports/load";
+
+    private static final String PROC_IO = "/proc/self/io";
+    private static final String PROC_IO_WRITTEN_KEY = "wchar:";
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final LoadScenario scenario;
+    private final Random random;
+
+    private MockServer server;
+    private final List<SteelArena> arenas = new ArrayList<>();
+    private final List<Player> players = new ArrayList<>();
+
+    private LoadHarness(LoadScenario scenario) {
+        this.scenario = scenario;
+        this.random = new Random(scenario.seed);
+    }
+
+    public static void main(String[] args) throws Exception {
+        String[] scenarios = args.length > 0 ? args : new String[] {"small"};
+        File outputDir = new File(System.getProperty(OUTPUT_PROPERTY, DEFAULT_OUTPUT));
+        Gson gson = new GsonBuilder().setPrettyPrinting().create();
+        for (String name : scenarios) {
+            Report report = new LoadHarness(LoadScenario.forName(name)).run();
+            System.out.println(report);
+            //noinspection ResultOfMethodCallIgnored
+            outputDir.mkdirs();
+            try (Writer writer = new OutputStreamWriter(new FileOutputStream(new File(outputDir, name + ".json")),
+                    StandardCharsets.UTF_8)) {
+                gson.toJson(report, writer);
+            }
+        }
+        System.exit(0); // don't wait on the scheduler threads of the SQLite driver
+    }
+
+    private Report run() throws Exception {
+        List<BenchmarkEnvironment> envs = new ArrayList<>();
+        for (int i = 0; i < scenario.minigames; i++) {
+            BenchmarkEnvironment env = BenchmarkEnvironment.create(scenario.arenasPerMinigame,
+                    scenario.arenasPerMinigame * scenario.playersPerArena);
+            envs.add(env);
+            arenas.addAll(env.getArenas());
+            players.addAll(env.getPlayers());
+        }
+        server = envs.get(0).getServer();
+
+        long[] tickTimes = new long[scenario.ticks];
+        long bytesWrittenBefore = getProcessBytesWritten();
+        long dataSizeBefore = getSize(BenchmarkEnvironment.getRoot());
+        long allocatedBefore = getAllocatedBytes();
+        long start = System.nanoTime();
+
+        for (int tick = 0; tick < scenario.ticks; tick++) {
+            long tickStart = System.nanoTime();
+            server.tick();
+            postBlockEvents();
+            postExplosions();
+            postChatMessages();
+            postDamageEvents();
+            churnChallengers();
+            if ((tick + 1) % scenario.roundLength == 0) {
+                cycleRounds();
+            }
+            tickTimes[tick] = System.nanoTime() - tickStart;
+        }
+
+        long elapsed = System.nanoTime() - start;
+        long allocated = getAllocatedBytes() - allocatedBefore;
+        long bytesWritten = getProcessBytesWritten();
+        Report report = new Report(scenario, tickTimes, elapsed, allocated,
+                bytesWritten >= 0 && bytesWrittenBefore >= 0 ? bytesWritten - bytesWrittenBefore : -1,
+                getSize(BenchmarkEnvironment.getRoot()) - dataSizeBefore);
+
+        for (BenchmarkEnvironment env : envs) {
+            env.close();
+        }
+        return report;
+    }
+
+    private void postBlockEvents() {
+        for (int i = 0; i < scenario.blockEventsPerTick; i++) {
+            SteelArena arena = randomArena();
+            Block block = randomLocation(arena).getBlock();
+            Player player = randomChallenger(arena);
+            if (player == null) {
+                continue;
+            }
+            Event event = random.nextBoolean()
+                    ? new BlockBreakEvent(block, player)
+                    : new BlockPlaceEvent(block, block.getState(), block, new ItemStack(Material.STONE), player, true);
+            Bukkit.getPluginManager().callEvent(event);
+        }
+    }
+
+    private void postExplosions() {
+        int count = (int) scenario.explosionsPerTick
+                + (random.nextDouble() < scenario.explosionsPerTick % 1 ? 1 : 0);
+        int radius = scenario.explosionRadius;
+        for (int i = 0; i < count; i++) {
+            Location center = randomLocation(randomArena());
+            List<Block> blocks = new ArrayList<>();
+            for (int x = -radius; x <= radius; x++) {
+                for (int y = -radius; y <= radius; y++) {
+                    for (int z = -radius; z <= radius; z++) {
+                        blocks.add(center.getWorld().getBlockAt(center.getBlockX() + x, center.getBlockY() + y,
+                                center.getBlockZ() + z));
+                    }
+                }
+            }
+            Entity tnt = server.createEntity(EntityType.PRIMED_TNT, center);
+            Bukkit.getPluginManager().callEvent(new EntityExplodeEvent(tnt, center, blocks, 0.3F));
+        }
+    }
+
+    private void postChatMessages() {
+        for (int i = 0; i < scenario.chatMessagesPerTick; i++) {
+            Player sender = players.get(random.nextInt(players.size()));
+            Bukkit.getPluginManager().callEvent(new AsyncPlayerChatEvent(false, sender, "Hello, world!",
+                    new HashSet<>(players)));
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    private void postDamageEvents() {
+        for (int i = 0; i < scenario.damageEventsPerTick; i++) {
+            SteelArena arena = randomArena();
+            Player damager = randomChallenger(arena);
+            Player victim = randomChallenger(arena);
+            if (damager == null || victim == null) {
+                continue;
+            }
+            Bukkit.getPluginManager().callEvent(new EntityDamageByEntityEvent(damager, victim,
+                    EntityDamageEvent.DamageCause.ENTITY_ATTACK, 1.0));
+        }
+    }
+
+    private void churnChallengers() {
+        int count = (int) scenario.churnPerTick + (random.nextDouble() < scenario.churnPerTick % 1 ? 1 : 0);
+        for (int i = 0; i < count; i++) {
+            Round round = randomArena().getRound().get();
+            if (round.getChallengers().isEmpty()) {
+                continue;
+            }
+            Challenger challenger = round.getChallengers().get(random.nextInt(round.getChallengers().size()));
+            UUID uuid = challenger.getUniqueId();
+            round.removeChallenger(challenger);
+            round.addChallenger(uuid);
+        }
+    }
+
+    private void cycleRounds() {
+        for (SteelArena arena : arenas) {
+            Round round = arena.getRound().get();
+            ImmutableSet<LifecycleStage> stages = round.getLifecycleStages();
+            List<UUID> challengers = new ArrayList<>();
+            for (Challenger challenger : round.getChallengers()) {
+                challengers.add(challenger.getUniqueId());
+            }
+            round.end(true);
+            Round next = arena.createRound(stages);
+            for (UUID uuid : challengers) {
+                next.addChallenger(uuid);
+            }
+        }
+    }
+
+    private SteelArena randomArena() {
+        return arenas.get(random.nextInt(arenas.size()));
+    }
+
+    private Location randomLocation(SteelArena arena) {
+        Location lower = new Location(server.getOrCreateWorld(arena.getWorld()),
+                arena.getBoundary().getLowerBound().getX(), arena.getBoundary().getLowerBound().getY(),
+                arena.getBoundary().getLowerBound().getZ());
+        return lower.add(random.nextInt(BenchmarkEnvironment.ARENA_SIZE),
+                random.nextInt(BenchmarkEnvironment.ARENA_HEIGHT), random.nextInt(BenchmarkEnvironment.ARENA_SIZE));
+    }
+
+    private Player randomChallenger(SteelArena arena) {
+        Round round = arena.getRound().get();
+        if (round.getChallengers().isEmpty()) {
+            return null;
+        }
+        return Bukkit.getPlayer(round.getChallengers().get(random.nextInt(round.getChallengers().size()))
+                .getUniqueId());
+    }
+
+    private static long getAllocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            // scheduled tasks run on this thread, so it accounts for all of Steel's work
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    // the number of bytes the process has passed to write calls, where the platform exposes it
+    private static long getProcessBytesWritten() {
+        try {
+            for (String line : Files.readAllLines(Paths.get(PROC_IO), StandardCharsets.US_ASCII)) {
+                if (line.startsWith(PROC_IO_WRITTEN_KEY)) {
+                    return Long.parseLong(line.substring(PROC_IO_WRITTEN_KEY.length()).trim());
+                }
+            }
+        } catch (IOException | NumberFormatException ignored) {
+        }
+        return -1;
+    }
+
+    private static long getSize(File file) {
+        File[] children = file.listFiles();
+        if (children == null) {
+            return file.length();
+        }
+        long size = 0;
+        for (File child : children) {
+            size += getSize(child);
+        }
+        return size;
+    }
+
+    /**
+     * The results of a single scenario run.
+     */
+    private static class Report {
+
+        private final String scenario;
+        private final int rounds;
+        private final int players;
+        private final int ticks;
+        private final double wallSeconds;
+        private final double meanTickMillis;
+        private final double[] tickPercentiles = PERCENTILES;
+        private final double[] tickPercentileMillis = new double[PERCENTILES.length];
+        private final double maxTickMillis;
+        private final long allocatedBytes;
+        private final double allocationMegabytesPerSecond;
+        private final long bytesWritten;
+        private final long dataGrowthBytes;
+
+        private Report(LoadScenario scenario, long[] tickTimes, long elapsed, long allocatedBytes, long bytesWritten,
+                       long dataGrowthBytes) {
+            this.scenario = scenario.name;
+            this.rounds = scenario.getRoundCount();
+            this.players = scenario.getPlayerCount();
+            this.ticks = tickTimes.length;
+            this.wallSeconds = elapsed / (double) TimeUnit.SECONDS.toNanos(1);
+
+            long[] sorted = tickTimes.clone();
+            Arrays.sort(sorted);
+            long total = 0;
+            for (long time : sorted) {
+                total += time;
+            }
+            this.meanTickMillis = toMillis(total / (double) sorted.length);
+            for (int i = 0; i < PERCENTILES.length; i++) {
+                int index = (int) Math.ceil(PERCENTILES[i] / 100 * sorted.length) - 1;
+                tickPercentileMillis[i] = toMillis(sorted[Math.max(index, 0)]);
+            }
+            this.maxTickMillis = toMillis(sorted[sorted.length - 1]);
+
+            this.allocatedBytes = allocatedBytes;
+            this.allocationMegabytesPerSecond = allocatedBytes >= 0 ? allocatedBytes / 1e6 / wallSeconds : -1;
+            this.bytesWritten = bytesWritten;
+            this.dataGrowthBytes = dataGrowthBytes;
+        }
+
+        private static double toMillis(double nanos) {
+            return nanos / TimeUnit.MILLISECONDS.toNanos(1);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("Scenario %s: %d rounds, %d players, %d ticks in %.1f s%n",
+                    scenario, rounds, players, ticks, wallSeconds));
+            sb.append(String.format("  tick time: mean %.3f ms", meanTickMillis));
+            for (int i = 0; i < tickPercentiles.length; i++) {
+                sb.append(String.format(", p%s %.3f ms", tickPercentiles[i], tickPercentileMillis[i]));
+            }
+            sb.append(String.format(", max %.3f ms%n", maxTickMillis));
+            sb.append(String.format("  allocation: %d bytes (%.1f MB/s)%n", allocatedBytes,
+                    allocationMegabytesPerSecond));
+            sb.append(String.format("  disk: %d bytes written, data directory grew by %d bytes",
+                    bytesWritten, dataGrowthBytes));
+            return sb.toString();
+        }
+
+    }
+
+}
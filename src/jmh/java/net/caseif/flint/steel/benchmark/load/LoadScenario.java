@@ -0,0 +1,113 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016, Max Roncace <me@caseif.net>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.caseif.flint.steel.benchmark.load;
+
+/**
+ * The parameters of a single {@link LoadHarness} run.
+ *
+ * <p>Each parameter may be overridden with a system property named
+ * {@code steel.load.<parameter>}, e.g. {@code -Dsteel.load.ticks=6000}.</p>
+ */
+public class LoadScenario {
+
+    private static final String PROPERTY_PREFIX = "steel.load.";
+
+    final String name;
+    final int minigames;
+    final int arenasPerMinigame;
+    final int playersPerArena;
+    final int ticks;
+    final int roundLength;
+    final int blockEventsPerTick;
+    final double explosionsPerTick;
+    final int explosionRadius;
+    final int chatMessagesPerTick;
+    final int damageEventsPerTick;
+    final double churnPerTick;
+    final long seed;
+
+    private LoadScenario(String name, int minigames, int arenasPerMinigame, int playersPerArena, int ticks,
+                         int roundLength, int blockEventsPerTick, double explosionsPerTick, int chatMessagesPerTick,
+                         int damageEventsPerTick, double churnPerTick) {
+        this.name = name;
+        this.minigames = Integer.getInteger(PROPERTY_PREFIX + "minigames", minigames);
+        this.arenasPerMinigame = Integer.getInteger(PROPERTY_PREFIX + "arenasPerMinigame", arenasPerMinigame);
+        this.playersPerArena = Integer.getInteger(PROPERTY_PREFIX + "playersPerArena", playersPerArena);
+        this.ticks = Integer.getInteger(PROPERTY_PREFIX + "ticks", ticks);
+        this.roundLength = Integer.getInteger(PROPERTY_PREFIX + "roundLength", roundLength);
+        this.blockEventsPerTick = Integer.getInteger(PROPERTY_PREFIX + "blockEventsPerTick", blockEventsPerTick);
+        this.explosionsPerTick = getDouble("explosionsPerTick", explosionsPerTick);
+        this.explosionRadius = Integer.getInteger(PROPERTY_PREFIX + "explosionRadius", 2);
+        this.chatMessagesPerTick = Integer.getInteger(PROPERTY_PREFIX + "chatMessagesPerTick", chatMessagesPerTick);
+        this.damageEventsPerTick = Integer.getInteger(PROPERTY_PREFIX + "damageEventsPerTick", damageEventsPerTick);
+        this.churnPerTick = getDouble("churnPerTick", churnPerTick);
+        this.seed = Long.getLong(PROPERTY_PREFIX + "seed", 0L);
+    }
+
+    /**
+     * Gets the preset scenario with the given name.
+     *
+     * @param name The name of the scenario ({@code small}, {@code medium} or
+     *     {@code large})
+     * @return The scenario
+     * @throws IllegalArgumentException If no scenario exists by the given name
+     */
+    public static LoadScenario forName(String name) throws IllegalArgumentException {
+        switch (name) {
+            case "small":
+                return new LoadScenario(name, 1, 4, 8, 1200, 600, 20, 0.05, 2, 10, 0.1);
+            case "medium":
+                return new LoadScenario(name, 2, 32, 8, 2400, 1200, 100, 0.2, 10, 50, 0.5);
+            case "large":
+                // 256 concurrent rounds
+                return new LoadScenario(name, 4, 64, 16, 2400, 1200, 400, 1.0, 40, 200, 2.0);
+            default:
+                throw new IllegalArgumentException("Unknown load scenario \"" + name + "\"");
+        }
+    }
+
+    /**
+     * Gets the total number of rounds running concurrently in this scenario.
+     *
+     * @return The number of concurrent rounds
+     */
+    public int getRoundCount() {
+        return minigames * arenasPerMinigame;
+    }
+
+    /**
+     * Gets the total number of players in this scenario.
+     *
+     * @return The number of players
+     */
+    public int getPlayerCount() {
+        return getRoundCount() * playersPerArena;
+    }
+
+    private static double getDouble(String key, double def) {
+        String value = System.getProperty(PROPERTY_PREFIX + key);
+        return value != null ? Double.parseDouble(value) : def;
+    }
+
+}
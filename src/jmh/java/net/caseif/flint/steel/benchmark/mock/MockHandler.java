@@ -0,0 +1,160 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016, Max Roncace <me@caseif.net>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.caseif.flint.steel.benchmark.mock;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@link InvocationHandler} backing the dynamic proxies which stand in for
+ * server objects during benchmarks.
+ *
+ * <p>Methods are answered by name. Methods without an explicit answer return
+ * the default value of their return type, or an empty collection where one
+ * is expected.</p>
+ */
+public class MockHandler implements InvocationHandler {
+
+    private final Map<String, Answer> answers = new HashMap<>();
+
+    /**
+     * Answers invocations of the method with the given name with the given
+     * {@link Answer}.
+     *
+     * @param method The name of the method to answer
+     * @param answer The {@link Answer} to respond with
+     * @return This {@link MockHandler}
+     */
+    public MockHandler answer(String method, Answer answer) {
+        answers.put(method, answer);
+        return this;
+    }
+
+    /**
+     * Answers invocations of the method with the given name with a constant
+     * value.
+     *
+     * @param method The name of the method to answer
+     * @param value The value to return
+     * @return This {@link MockHandler}
+     */
+    public MockHandler returning(String method, final Object value) {
+        return answer(method, new Answer() {
+            @Override
+            public Object answer(Object[] args) {
+                return value;
+            }
+        });
+    }
+
+    /**
+     * Creates a proxy implementing the given interfaces which is backed by
+     * this {@link MockHandler}.
+     *
+     * @param type The primary interface of the proxy
+     * @param extraTypes Any additional interfaces to implement
+     * @param <T> The primary interface of the proxy
+     * @return The new proxy
+     */
+    public <T> T proxy(Class<T> type, Class<?>... extraTypes) {
+        Class<?>[] types = new Class<?>[extraTypes.length + 1];
+        types[0] = type;
+        System.arraycopy(extraTypes, 0, types, 1, extraTypes.length);
+        return type.cast(Proxy.newProxyInstance(MockHandler.class.getClassLoader(), types, this));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        Answer answer = answers.get(method.getName());
+        if (answer != null) {
+            return answer.answer(args != null ? args : new Object[0]);
+        }
+        if (method.getDeclaringClass() == Object.class) {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return proxy.getClass().getInterfaces()[0].getSimpleName() + "@"
+                            + Integer.toHexString(System.identityHashCode(proxy));
+            }
+        }
+        return getDefaultValue(method.getReturnType());
+    }
+
+    private static Object getDefaultValue(Class<?> type) {
+        if (!type.isPrimitive()) {
+            if (type == List.class) {
+                return Collections.emptyList();
+            } else if (type == Set.class) {
+                return Collections.emptySet();
+            } else if (type == Map.class) {
+                return Collections.emptyMap();
+            }
+            return null;
+        } else if (type == boolean.class) {
+            return false;
+        } else if (type == void.class) {
+            return null;
+        } else if (type == char.class) {
+            return '\0';
+        } else if (type == float.class) {
+            return 0F;
+        } else if (type == double.class) {
+            return 0D;
+        } else if (type == long.class) {
+            return 0L;
+        } else if (type == int.class) {
+            return 0;
+        } else if (type == short.class) {
+            return (short) 0;
+        } else {
+            return (byte) 0;
+        }
+    }
+
+    /**
+     * Computes the return value of a mocked method.
+     */
+    public interface Answer {
+
+        /**
+         * Computes the return value for an invocation with the given
+         * arguments.
+         *
+         * @param args The arguments passed to the method
+         * @return The value to return
+         */
+        Object answer(Object[] args);
+
+    }
+
+}
@@ -0,0 +1,706 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016, Max Roncace <me@caseif.net>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.caseif.flint.steel.benchmark.mock;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.Server;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockState;
+import org.bukkit.block.Chest;
+import org.bukkit.block.Sign;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.EntityType;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Cancellable;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventException;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
+import org.bukkit.inventory.ItemFactory;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
+import org.bukkit.plugin.EventExecutor;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.PluginManager;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.File;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * In-process stand-in for a Bukkit server, built from dynamic proxies.
+ *
+ * <p>Only the behavior exercised by Steel's hot paths is modeled. Scheduled
+ * tasks are not run until {@link MockServer#tick()} is invoked, and
+ * asynchronous tasks are run on the ticking thread. Events passed to
+ * {@link PluginManager#callEvent(Event)} are dispatched to registered
+ * listeners by priority, as they would be by a real server.</p>
+ */
+public final class MockServer {
+
+    private static final String SERVER_NAME = "MockServer";
+    private static final String SERVER_VERSION = "1.8.8-R0.1-SNAPSHOT";
+
+    private static final int PLAYER_INVENTORY_SIZE = 36;
+    private static final int ARMOR_SLOTS = 4;
+    private static final int CHEST_SIZE = 27;
+
+    private static MockServer instance;
+
+    private final Server server;
+    private final Logger logger = Logger.getLogger(SERVER_NAME);
+
+    private final Map<String, Plugin> plugins = new LinkedHashMap<>();
+    private final Map<String, World> worlds = new LinkedHashMap<>();
+    private final Map<UUID, Player> players = new LinkedHashMap<>();
+
+    private final List<RegisteredHandler> handlers = new ArrayList<>();
+
+    private final Map<Integer, ScheduledTask> tasks = new LinkedHashMap<>();
+    private int nextTaskId = 1;
+    private long currentTick;
+
+    private MockServer() {
+        logger.setLevel(Level.WARNING); // keep benchmark output readable
+        server = new MockHandler()
+                .returning("getName", SERVER_NAME)
+                .returning("getVersion", SERVER_VERSION)
+                .returning("getBukkitVersion", SERVER_VERSION)
+                .returning("getLogger", logger)
+                .returning("isPrimaryThread", true)
+                .returning("getPluginManager", createPluginManager())
+                .returning("getScheduler", createScheduler())
+                .returning("getItemFactory", createItemFactory())
+                .answer("getPlayer", new MockHandler.Answer() {
+                    @Override
+                    public Object answer(Object[] args) {
+                        if (args[0] instanceof UUID) {
+                            return players.get(args[0]);
+                        }
+                        for (Player player : players.values()) {
+                            if (player.getName().equalsIgnoreCase((String) args[0])) {
+                                return player;
+                            }
+                        }
+                        return null;
+                    }
+                })
+                .answer("getOnlinePlayers", new MockHandler.Answer() {
+                    @Override
+                    public Object answer(Object[] args) {
+                        return Collections.unmodifiableCollection(new ArrayList<>(players.values()));
+                    }
+                })
+                .answer("getWorld", new MockHandler.Answer() {
+                    @Override
+                    public Object answer(Object[] args) {
+                        if (args[0] instanceof UUID) {
+                            for (World world : worlds.values()) {
+                                if (world.getUID().equals(args[0])) {
+                                    return world;
+                                }
+                            }
+                            return null;
+                        }
+                        return worlds.get(args[0]);
+                    }
+                })
+                .answer("getWorlds", new MockHandler.Answer() {
+                    @Override
+                    public Object answer(Object[] args) {
+                        return new ArrayList<>(worlds.values());
+                    }
+                })
+                .proxy(Server.class);
+    }
+
+    /**
+     * Installs a {@link MockServer} as the running Bukkit server, or returns
+     * the existing one if this has already been done.
+     *
+     * <p>Bukkit only permits its server to be set once per JVM, so the same
+     * instance is shared by all benchmarks in a fork.</p>
+     *
+     * @return The installed {@link MockServer}
+     */
+    public static synchronized MockServer install() {
+        if (instance == null) {
+            instance = new MockServer();
+            Bukkit.setServer(instance.server);
+        }
+        return instance;
+    }
+
+    /**
+     * Gets the {@link Server} proxy backed by this {@link MockServer}.
+     *
+     * @return The {@link Server} proxy
+     */
+    public Server getServer() {
+        return server;
+    }
+
+    /**
+     * Registers a plugin with the given name as enabled.
+     *
+     * @param plugin The {@link Plugin} to register
+     */
+    public void addPlugin(Plugin plugin) {
+        plugins.put(plugin.getName(), plugin);
+    }
+
+    /**
+     * Creates a bare enabled {@link Plugin} with the given name and data
+     * folder, and registers it.
+     *
+     * @param name The name of the plugin
+     * @param dataFolder The data folder of the plugin
+     * @return The new {@link Plugin}
+     */
+    public Plugin createPlugin(String name, File dataFolder) {
+        Plugin plugin = new MockHandler()
+                .returning("getName", name)
+                .returning("getDataFolder", dataFolder)
+                .returning("isEnabled", true)
+                .returning("getServer", server)
+                .returning("getLogger", logger)
+                .proxy(Plugin.class);
+        addPlugin(plugin);
+        return plugin;
+    }
+
+    /**
+     * Gets or creates the world with the given name.
+     *
+     * @param name The name of the world
+     * @return The {@link World}
+     */
+    public World getOrCreateWorld(final String name) {
+        World world = worlds.get(name);
+        if (world != null) {
+            return world;
+        }
+        final World[] self = new World[1];
+        world = new MockHandler()
+                .returning("getName", name)
+                .returning("getUID", UUID.nameUUIDFromBytes(name.getBytes()))
+                .returning("getEntities", new ArrayList<>())
+                .returning("getLivingEntities", new ArrayList<>())
+                .answer("getSpawnLocation", new MockHandler.Answer() {
+                    @Override
+                    public Object answer(Object[] args) {
+                        return new Location(self[0], 0, 64, 0);
+                    }
+                })
+                .answer("getBlockAt", new MockHandler.Answer() {
+                    @Override
+                    public Object answer(Object[] args) {
+                        if (args.length == 1) {
+                            Location loc = (Location) args[0];
+                            return createBlock(self[0], loc.getBlockX(), loc.getBlockY(), loc.getBlockZ());
+                        }
+                        return createBlock(self[0], (Integer) args[0], (Integer) args[1], (Integer) args[2]);
+                    }
+                })
+                .answer("getPlayers", new MockHandler.Answer() {
+                    @Override
+                    public Object answer(Object[] args) {
+                        List<Player> inWorld = new ArrayList<>();
+                        for (Player player : players.values()) {
+                            if (player.getWorld() == self[0]) {
+                                inWorld.add(player);
+                            }
+                        }
+                        return inWorld;
+                    }
+                })
+                .proxy(World.class);
+        self[0] = world;
+        worlds.put(name, world);
+        return world;
+    }
+
+    /**
+     * Creates an online player with the given name at the given location.
+     *
+     * @param name The name of the player
+     * @param location The initial location of the player
+     * @return The new {@link Player}
+     */
+    public Player addPlayer(String name, Location location) {
+        final Location[] current = {location.clone()};
+        final ItemStack[] contents = new ItemStack[PLAYER_INVENTORY_SIZE];
+        final ItemStack[] armor = new ItemStack[ARMOR_SLOTS];
+        for (int i = 0; i < contents.length; i += 2) {
+            contents[i] = new ItemStack(Material.values()[1 + i], 1 + i);
+        }
+        PlayerInventory inventory = new MockHandler()
+                .returning("getSize", PLAYER_INVENTORY_SIZE)
+                .answer("getContents", new MockHandler.Answer() {
+                    @Override
+                    public Object answer(Object[] args) {
+                        return contents.clone();
+                    }
+                })
+                .answer("setContents", new MockHandler.Answer() {
+                    @Override
+                    public Object answer(Object[] args) {
+                        ItemStack[] items = (ItemStack[]) args[0];
+                        Arrays.fill(contents, null);
+                        System.arraycopy(items, 0, contents, 0, Math.min(items.length, contents.length));
+                        return null;
+                    }
+                })
+                .answer("getArmorContents", new MockHandler.Answer() {
+                    @Override
+                    public Object answer(Object[] args) {
+                        return armor.clone();
+                    }
+                })
+                .answer("setArmorContents", new MockHandler.Answer() {
+                    @Override
+                    public Object answer(Object[] args) {
+                        ItemStack[] items = (ItemStack[]) args[0];
+                        Arrays.fill(armor, null);
+                        System.arraycopy(items, 0, armor, 0, Math.min(items.length, armor.length));
+                        return null;
+                    }
+                })
+                .answer("clear", new MockHandler.Answer() {
+                    @Override
+                    public Object answer(Object[] args) {
+                        Arrays.fill(contents, null);
+                        return null;
+                    }
+                })
+                .proxy(PlayerInventory.class);
+        Player player = new MockHandler()
+                .returning("getType", EntityType.PLAYER)
+                .returning("getName", name)
+                .returning("getDisplayName", name)
+                .returning("getUniqueId", UUID.nameUUIDFromBytes(("Player:" + name).getBytes()))
+                .returning("isOnline", true)
+                .returning("getInventory", inventory)
+                .returning("getServer", server)
+                .answer("getLocation", new MockHandler.Answer() {
+                    @Override
+                    public Object answer(Object[] args) {
+                        return current[0].clone();
+                    }
+                })
+                .answer("getWorld", new MockHandler.Answer() {
+                    @Override
+                    public Object answer(Object[] args) {
+                        return current[0].getWorld();
+                    }
+                })
+                .answer("teleport", new MockHandler.Answer() {
+                    @Override
+                    public Object answer(Object[] args) {
+                        if (args[0] instanceof Location) {
+                            current[0] = ((Location) args[0]).clone();
+                            return true;
+                        }
+                        return false;
+                    }
+                })
+                .proxy(Player.class);
+        players.put(player.getUniqueId(), player);
+        return player;
+    }
+
+    /**
+     * Removes the given player from the server.
+     *
+     * @param player The {@link Player} to remove
+     */
+    public void removePlayer(Player player) {
+        players.remove(player.getUniqueId());
+    }
+
+    /**
+     * Creates an entity of the given type at the given location. The entity
+     * is not added to its world.
+     *
+     * @param type The type of the entity
+     * @param location The location of the entity
+     * @return The new {@link Entity}
+     */
+    public Entity createEntity(EntityType type, Location location) {
+        return new MockHandler()
+                .returning("getType", type)
+                .returning("getUniqueId", UUID.randomUUID())
+                .returning("getWorld", location.getWorld())
+                .returning("getLocation", location.clone())
+                .returning("isValid", true)
+                .proxy(type.getEntityClass() != null ? type.getEntityClass() : Entity.class);
+    }
+
+    /**
+     * Creates a {@link BlockState} of the given kind at the given location.
+     *
+     * @param kind The kind of block to create a state for
+     * @param location The location of the block
+     * @return The new {@link BlockState}
+     */
+    public BlockState createState(BlockKind kind, Location location) {
+        MockHandler handler = new MockHandler()
+                .returning("getX", location.getBlockX())
+                .returning("getY", location.getBlockY())
+                .returning("getZ", location.getBlockZ())
+                .returning("getWorld", location.getWorld())
+                .returning("getLocation", location.clone())
+                .returning("getRawData", (byte) 0)
+                .returning("update", true);
+        switch (kind) {
+            case SIGN:
+                final String[] lines = {"[Steel]", location.getWorld().getName(),
+                        location.getBlockX() + "," + location.getBlockZ(), ""};
+                return handler.returning("getType", Material.SIGN_POST)
+                        .returning("getLines", lines)
+                        .answer("getLine", new MockHandler.Answer() {
+                            @Override
+                            public Object answer(Object[] args) {
+                                return lines[(Integer) args[0]];
+                            }
+                        })
+                        .proxy(Sign.class);
+            case CHEST:
+                ItemStack[] items = new ItemStack[CHEST_SIZE];
+                for (int i = 0; i < items.length; i += 3) {
+                    items[i] = new ItemStack(Material.values()[1 + i], 1 + i % 64);
+                }
+                Inventory inventory = new MockHandler()
+                        .returning("getSize", CHEST_SIZE)
+                        .returning("getContents", items)
+                        .proxy(Inventory.class);
+                return handler.returning("getType", Material.CHEST)
+                        .returning("getInventory", inventory)
+                        .returning("getBlockInventory", inventory)
+                        .proxy(Chest.class, InventoryHolder.class);
+            default:
+                return handler.returning("getType", Material.STONE).proxy(BlockState.class);
+        }
+    }
+
+    /**
+     * Advances the server by a single tick, running any tasks which have
+     * become due.
+     */
+    public void tick() {
+        currentTick++;
+        for (ScheduledTask task : new ArrayList<>(tasks.values())) {
+            if (task.nextTick > currentTick || !tasks.containsKey(task.id)) {
+                continue;
+            }
+            if (task.period > 0) {
+                task.nextTick += task.period;
+            } else {
+                tasks.remove(task.id);
+            }
+            task.runnable.run();
+        }
+    }
+
+    /**
+     * Gets the number of ticks which have elapsed on this server.
+     *
+     * @return The current tick
+     */
+    public long getCurrentTick() {
+        return currentTick;
+    }
+
+    /**
+     * Cancels all tasks scheduled on this server.
+     */
+    public void cancelAllTasks() {
+        tasks.clear();
+    }
+
+    private Block createBlock(final World world, final int x, final int y, final int z) {
+        final Block[] self = new Block[1];
+        self[0] = new MockHandler()
+                .returning("getWorld", world)
+                .returning("getX", x)
+                .returning("getY", y)
+                .returning("getZ", z)
+                .returning("getType", Material.AIR)
+                .answer("getLocation", new MockHandler.Answer() {
+                    @Override
+                    public Object answer(Object[] args) {
+                        return new Location(world, x, y, z);
+                    }
+                })
+                .answer("getState", new MockHandler.Answer() {
+                    @Override
+                    public Object answer(Object[] args) {
+                        return createState(BlockKind.PLAIN, self[0].getLocation());
+                    }
+                })
+                .proxy(Block.class);
+        return self[0];
+    }
+
+    private PluginManager createPluginManager() {
+        return new MockHandler()
+                .answer("registerEvents", new MockHandler.Answer() {
+                    @Override
+                    public Object answer(Object[] args) {
+                        registerEvents((Listener) args[0]);
+                        return null;
+                    }
+                })
+                .answer("registerEvent", new MockHandler.Answer() {
+                    @SuppressWarnings("unchecked")
+                    @Override
+                    public Object answer(Object[] args) {
+                        addHandler(new RegisteredHandler((Class<? extends Event>) args[0], (Listener) args[1],
+                                (EventPriority) args[2], (EventExecutor) args[3],
+                                args.length > 5 && (Boolean) args[5]));
+                        return null;
+                    }
+                })
+                .answer("callEvent", new MockHandler.Answer() {
+                    @Override
+                    public Object answer(Object[] args) {
+                        callEvent((Event) args[0]);
+                        return null;
+                    }
+                })
+                .answer("getPlugin", new MockHandler.Answer() {
+                    @Override
+                    public Object answer(Object[] args) {
+                        return plugins.get(args[0]);
+                    }
+                })
+                .answer("getPlugins", new MockHandler.Answer() {
+                    @Override
+                    public Object answer(Object[] args) {
+                        return plugins.values().toArray(new Plugin[plugins.size()]);
+                    }
+                })
+                .answer("isPluginEnabled", new MockHandler.Answer() {
+                    @Override
+                    public Object answer(Object[] args) {
+                        return args[0] instanceof Plugin ? plugins.containsValue(args[0])
+                                : plugins.containsKey(args[0]);
+                    }
+                })
+                .proxy(PluginManager.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void registerEvents(final Listener listener) {
+        for (final Method method : listener.getClass().getMethods()) {
+            EventHandler annotation = method.getAnnotation(EventHandler.class);
+            if (annotation == null || method.getParameterTypes().length != 1
+                    || !Event.class.isAssignableFrom(method.getParameterTypes()[0])) {
+                continue;
+            }
+            addHandler(new RegisteredHandler((Class<? extends Event>) method.getParameterTypes()[0], listener,
+                    annotation.priority(), new EventExecutor() {
+                        @Override
+                        public void execute(Listener listener, Event event) throws EventException {
+                            try {
+                                method.invoke(listener, event);
+                            } catch (IllegalAccessException | InvocationTargetException ex) {
+                                throw new EventException(ex);
+                            }
+                        }
+                    }, annotation.ignoreCancelled()));
+        }
+    }
+
+    private void addHandler(RegisteredHandler handler) {
+        handlers.add(handler);
+        // the sort is stable, so handlers of equal priority keep their registration order
+        Collections.sort(handlers, new Comparator<RegisteredHandler>() {
+            @Override
+            public int compare(RegisteredHandler a, RegisteredHandler b) {
+                return a.priority.ordinal() - b.priority.ordinal();
+            }
+        });
+    }
+
+    private void callEvent(Event event) {
+        for (RegisteredHandler handler : handlers) {
+            if (!handler.eventClass.isInstance(event)) {
+                continue;
+            }
+            if (handler.ignoreCancelled && event instanceof Cancellable && ((Cancellable) event).isCancelled()) {
+                continue;
+            }
+            try {
+                handler.executor.execute(handler.listener, event);
+            } catch (EventException ex) {
+                // as on a real server, a failing listener does not prevent the others from running
+                logger.log(Level.SEVERE, "Could not pass event " + event.getEventName() + " to "
+                        + handler.listener.getClass().getName(), ex.getCause());
+            }
+        }
+    }
+
+    private BukkitScheduler createScheduler() {
+        MockHandler.Answer taskAnswer = new MockHandler.Answer() {
+            @Override
+            public Object answer(Object[] args) {
+                final ScheduledTask task = schedule(args);
+                return new MockHandler()
+                        .returning("getTaskId", task.id)
+                        .returning("getOwner", args[0])
+                        .returning("isSync", true)
+                        .answer("cancel", new MockHandler.Answer() {
+                            @Override
+                            public Object answer(Object[] args) {
+                                tasks.remove(task.id);
+                                return null;
+                            }
+                        })
+                        .proxy(BukkitTask.class);
+            }
+        };
+        MockHandler.Answer idAnswer = new MockHandler.Answer() {
+            @Override
+            public Object answer(Object[] args) {
+                return schedule(args).id;
+            }
+        };
+        return new MockHandler()
+                .answer("runTask", taskAnswer)
+                .answer("runTaskLater", taskAnswer)
+                .answer("runTaskTimer", taskAnswer)
+                .answer("runTaskAsynchronously", taskAnswer)
+                .answer("runTaskLaterAsynchronously", taskAnswer)
+                .answer("runTaskTimerAsynchronously", taskAnswer)
+                .answer("scheduleSyncDelayedTask", idAnswer)
+                .answer("scheduleSyncRepeatingTask", idAnswer)
+                .answer("cancelTask", new MockHandler.Answer() {
+                    @Override
+                    public Object answer(Object[] args) {
+                        tasks.remove(args[0]);
+                        return null;
+                    }
+                })
+                .proxy(BukkitScheduler.class);
+    }
+
+    // arguments are (plugin, task[, delay[, period]]) for every scheduling method
+    private ScheduledTask schedule(Object[] args) {
+        long delay = args.length >= 3 ? (Long) args[2] : 0L;
+        long period = args.length >= 4 ? (Long) args[3] : -1L;
+        ScheduledTask task = new ScheduledTask(nextTaskId++, (Runnable) args[1], currentTick + Math.max(delay, 1L),
+                period);
+        tasks.put(task.id, task);
+        return task;
+    }
+
+    private ItemFactory createItemFactory() {
+        // items never carry metadata on this server
+        return new MockHandler()
+                .answer("equals", new MockHandler.Answer() {
+                    @Override
+                    public Object answer(Object[] args) {
+                        return args.length == 2 && args[0] == null && args[1] == null;
+                    }
+                })
+                .proxy(ItemFactory.class);
+    }
+
+    /**
+     * The kinds of block which may be created by
+     * {@link MockServer#createState(BlockKind, Location)}.
+     */
+    public enum BlockKind {
+
+        /**
+         * A block without a block entity.
+         */
+        PLAIN,
+        /**
+         * A sign with four lines of text.
+         */
+        SIGN,
+        /**
+         * A chest holding an inventory.
+         */
+        CHEST
+
+    }
+
+    private static final class RegisteredHandler {
+
+        private final Class<? extends Event> eventClass;
+        private final Listener listener;
+        private final EventPriority priority;
+        private final EventExecutor executor;
+        private final boolean ignoreCancelled;
+
+        private RegisteredHandler(Class<? extends Event> eventClass, Listener listener, EventPriority priority,
+                                  EventExecutor executor, boolean ignoreCancelled) {
+            this.eventClass = eventClass;
+            this.listener = listener;
+            this.priority = priority;
+            this.executor = executor;
+            this.ignoreCancelled = ignoreCancelled;
+        }
+
+    }
+
+    private static final class ScheduledTask {
+
+        private final int id;
+        private final Runnable runnable;
+        private final long period;
+        private long nextTick;
+
+        private ScheduledTask(int id, Runnable runnable, long nextTick, long period) {
+            this.id = id;
+            this.runnable = runnable;
+            this.nextTick = nextTick;
+            this.period = period;
+        }
+
+    }
+
+}
@@ -23,6 +23,8 @@
  */
 package net.caseif.flint.steel;
 
+import net.caseif.flint.steel.command.SteelCommandExecutor;
+import net.caseif.flint.steel.listener.misc.ChunkResidencyListener;
 import net.caseif.flint.steel.listener.misc.LobbyListener;
 import net.caseif.flint.steel.listener.player.PlayerConnectionListener;
 import net.caseif.flint.steel.listener.player.PlayerWorldListener;
@@ -33,15 +35,23 @@ import net.caseif.flint.steel.listener.rollback.RollbackInventoryListener;
 import net.caseif.flint.steel.listener.rollback.breaking.v18.BreakingV18RollbackEntityListener;
 import net.caseif.flint.steel.util.file.DataFiles;
 import net.caseif.flint.steel.util.helper.ConfigHelper;
+import net.caseif.flint.steel.util.helper.PlayerHelper;
 import net.caseif.flint.steel.util.TelemetryRunner;
+import net.caseif.flint.steel.util.helper.rollback.RollbackMaintenanceRunner;
+import net.caseif.flint.steel.util.management.ManagementRunner;
+import net.caseif.flint.steel.util.metrics.MetricsFileExporter;
 
 import net.gravitydevelopment.updater.Updater;
 import org.bukkit.Bukkit;
 import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.event.Listener;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.mcstats.Metrics;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * The main plugin class.
@@ -52,14 +62,21 @@ public class SteelMain extends JavaPlugin {
 
     private static final int CURSEFORGE_PROJECT_ID = 95203;
 
+    private static final long TICKS_PER_SECOND = 20L;
+
     private static SteelMain instance;
 
+    private final List<Listener> listeners = new ArrayList<>();
+
+    private ManagementRunner managementRunner;
+
     @Override
     public void onEnable() {
         instance = this;
         SteelCore.initialize();
 
         registerEvents();
+        getCommand("steel").setExecutor(new SteelCommandExecutor());
 
         saveDefaultConfig();
         try {
@@ -69,6 +86,8 @@ public class SteelMain extends JavaPlugin {
             SteelCore.logWarning("Failed to write missing config keys");
         }
         DataFiles.createCoreDataFiles();
+        PlayerHelper.migrateLegacyStores();
+        PlayerHelper.indexStoredStates();
 
         try {
             Class.forName("org.sqlite.JDBC"); // load the SQL driver
@@ -80,10 +99,16 @@ public class SteelMain extends JavaPlugin {
         initMetrics();
         initTelemetry();
         initUpdater();
+        initRollbackMaintenance();
+        initMetricsExport();
+        initManagement();
     }
 
     @Override
     public void onDisable() {
+        if (managementRunner != null) {
+            managementRunner.unregisterAll();
+        }
     }
 
     public static SteelMain getInstance() {
@@ -108,6 +133,29 @@ public class SteelMain extends JavaPlugin {
         }
     }
 
+    public void initRollbackMaintenance() {
+        long interval = getConfig().getLong("rollback-maintenance-interval") * TICKS_PER_SECOND;
+        if (interval > 0) {
+            Bukkit.getScheduler().runTaskTimer(this, new RollbackMaintenanceRunner(), interval, interval);
+        }
+    }
+
+    public void initMetricsExport() {
+        long interval = getConfig().getLong("metrics-export-interval") * TICKS_PER_SECOND;
+        if (interval > 0) {
+            Bukkit.getScheduler().runTaskTimerAsynchronously(this, new MetricsFileExporter(), interval, interval);
+        }
+    }
+
+    public void initManagement() {
+        long interval = getConfig().getLong("jmx-refresh-interval") * TICKS_PER_SECOND;
+        if (interval > 0) {
+            managementRunner = new ManagementRunner();
+            managementRunner.registerMetrics();
+            Bukkit.getScheduler().runTaskTimer(this, managementRunner, 0L, interval);
+        }
+    }
+
     public void initUpdater() {
         if (getConfig().getBoolean("enable-updater")) {
             new Updater(this, CURSEFORGE_PROJECT_ID, this.getFile(), Updater.UpdateType.DEFAULT, true);
@@ -116,23 +164,38 @@ public class SteelMain extends JavaPlugin {
 
     public void registerEvents() {
         // standard event registration
-        Bukkit.getPluginManager().registerEvents(new PlayerConnectionListener(), getInstance());
-        Bukkit.getPluginManager().registerEvents(new PlayerWorldListener(), getInstance());
+        registerListener(new PlayerConnectionListener());
+        registerListener(new PlayerWorldListener());
 
-        Bukkit.getPluginManager().registerEvents(new PluginListener(), getInstance());
+        registerListener(new PluginListener());
 
-        Bukkit.getPluginManager().registerEvents(new RollbackBlockListener(), getInstance());
-        Bukkit.getPluginManager().registerEvents(new RollbackEntityListener(), getInstance());
-        Bukkit.getPluginManager().registerEvents(new RollbackInventoryListener(), getInstance());
+        registerListener(new RollbackBlockListener());
+        registerListener(new RollbackEntityListener());
+        registerListener(new RollbackInventoryListener());
 
-        Bukkit.getPluginManager().registerEvents(new LobbyListener(), getInstance());
+        registerListener(new LobbyListener());
+        registerListener(new ChunkResidencyListener());
 
         // breaking event registration (for newer event types)
         try {
-            Bukkit.getPluginManager().registerEvents(new BreakingV18RollbackEntityListener(), getInstance());
+            registerListener(new BreakingV18RollbackEntityListener());
         } catch (NoClassDefFoundError ex) {
             SteelCore.logVerbose("Server does not support 1.8 events - not registering");
         }
     }
 
+    private void registerListener(Listener listener) {
+        Bukkit.getPluginManager().registerEvents(listener, getInstance());
+        listeners.add(listener);
+    }
+
+    /**
+     * Gets all {@link Listener}s registered by Steel.
+     *
+     * @return All {@link Listener}s registered by Steel
+     */
+    public List<Listener> getListeners() {
+        return Collections.unmodifiableList(listeners);
+    }
+
 }
@@ -0,0 +1,178 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016, Max Roncace <me@caseif.net>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.caseif.flint.steel.arena;
+
+import net.caseif.flint.steel.SteelCore;
+import net.caseif.flint.steel.SteelMain;
+import net.caseif.flint.steel.util.StaggeredRunner;
+import net.caseif.flint.steel.util.metrics.SteelMetrics;
+import net.caseif.flint.util.physical.Boundary;
+import net.caseif.flint.util.physical.Location3D;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.World;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps the chunks of an arena resident while it hosts a round.
+ *
+ * <p>When pinned, the chunks containing the arena's spawn points are loaded
+ * immediately so that challengers never join into an unloaded chunk, while
+ * the remaining chunks are preloaded across ticks as configured by
+ * {@code chunk-preloads-per-tick}. All are prevented from unloading until
+ * released. Arenas whose boundaries span more than
+ * {@code max-resident-chunks} chunks only have the chunks containing their
+ * spawn points pinned.</p>
+ *
+ * <p>This class must only be used from the main thread.</p>
+ */
+public class ChunkResidency {
+
+    // pin counts keyed by chunk, since the boundaries of arenas may overlap
+    private static final Map<String, Integer> PINS = new HashMap<>();
+
+    private final SteelArena arena;
+    private final Set<String> pinned = new HashSet<>();
+    private StaggeredRunner preloader;
+
+    ChunkResidency(SteelArena arena) {
+        this.arena = arena;
+    }
+
+    /**
+     * Pins the chunks of this residency's arena, loading those containing
+     * spawn points immediately and queuing any others which are not loaded to
+     * be loaded over the following ticks.
+     */
+    public void pin() {
+        if (!pinned.isEmpty()) {
+            return;
+        }
+        final World world = Bukkit.getWorld(arena.getWorld());
+        if (world == null) {
+            return;
+        }
+
+        preloader = new StaggeredRunner(SteelMain.getInstance().getConfig().getInt("chunk-preloads-per-tick"));
+        for (Location3D spawn : arena.getSpawnPoints().values()) {
+            pinChunk(world, toChunk(spawn.getX()), toChunk(spawn.getZ()), true);
+        }
+        Boundary bound = arena.getBoundary();
+        int minX = toChunk(bound.getLowerBound().getX());
+        int maxX = toChunk(bound.getUpperBound().getX());
+        int minZ = toChunk(bound.getLowerBound().getZ());
+        int maxZ = toChunk(bound.getUpperBound().getZ());
+        long area = ((long) maxX - minX + 1) * ((long) maxZ - minZ + 1);
+        if (area <= SteelMain.getInstance().getConfig().getLong("max-resident-chunks")) {
+            for (int x = minX; x <= maxX; x++) {
+                for (int z = minZ; z <= maxZ; z++) {
+                    pinChunk(world, x, z, false);
+                }
+            }
+        } else {
+            SteelCore.logVerbose("Arena " + arena.getId() + " spans " + area + " chunks - only pinning chunks "
+                    + "containing spawn points");
+        }
+        SteelMetrics.RESIDENT_CHUNKS.set(PINS.size());
+        preloader.start(SteelMain.getInstance());
+    }
+
+    /**
+     * Releases the chunks pinned by this residency, allowing them to unload.
+     */
+    public void release() {
+        if (preloader != null) {
+            preloader.cancel();
+            preloader = null;
+        }
+        for (String key : pinned) {
+            Integer count = PINS.get(key);
+            if (count == null || count <= 1) {
+                PINS.remove(key);
+            } else {
+                PINS.put(key, count - 1);
+            }
+        }
+        pinned.clear();
+        SteelMetrics.RESIDENT_CHUNKS.set(PINS.size());
+    }
+
+    private void pinChunk(final World world, final int x, final int z, boolean immediate) {
+        String key = getKey(world.getName(), x, z);
+        if (!pinned.add(key)) {
+            return;
+        }
+        Integer count = PINS.get(key);
+        PINS.put(key, count != null ? count + 1 : 1);
+        if (world.isChunkLoaded(x, z)) {
+            return;
+        }
+        if (immediate) {
+            world.loadChunk(x, z);
+        } else {
+            preloader.submit(new Runnable() {
+                @Override
+                public void run() {
+                    if (!world.isChunkLoaded(x, z)) {
+                        world.loadChunk(x, z);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Gets whether the given {@link Chunk} is pinned by any arena.
+     *
+     * @param chunk The {@link Chunk} to check
+     * @return Whether the given {@link Chunk} is pinned
+     */
+    public static boolean isPinned(Chunk chunk) {
+        return PINS.containsKey(getKey(chunk.getWorld().getName(), chunk.getX(), chunk.getZ()));
+    }
+
+    /**
+     * Gets the number of chunks currently pinned across all arenas.
+     *
+     * @return The number of chunks currently pinned
+     */
+    public static int getResidentCount() {
+        return PINS.size();
+    }
+
+    private static int toChunk(double coord) {
+        // clamp before the shift so unbounded arenas don't overflow
+        return (int) Math.max(Math.min(Math.floor(coord), Integer.MAX_VALUE), Integer.MIN_VALUE) >> 4;
+    }
+
+    private static String getKey(String world, int x, int z) {
+        return world + ":" + x + ":" + z;
+    }
+
+}
@@ -47,6 +47,7 @@ import net.caseif.flint.steel.round.SteelRound;
 import net.caseif.flint.steel.util.file.DataFiles;
 import net.caseif.flint.steel.util.helper.LocationHelper;
 import net.caseif.flint.steel.util.helper.rollback.RollbackHelper;
+import net.caseif.flint.steel.util.metrics.SteelMetrics;
 import net.caseif.flint.util.physical.Boundary;
 import net.caseif.flint.util.physical.Location3D;
 
@@ -82,6 +83,8 @@ public class SteelArena extends CommonArena {
     public static final String PERSISTENCE_BOUNDS_LOWER_KEY = "bound.lower";
     public static final String PERSISTENCE_METADATA_KEY = "metadata";
 
+    private final ChunkResidency chunkResidency = new ChunkResidency(this);
+
     public SteelArena(CommonMinigame parent, String id, String name, Location3D initialSpawn, Boundary boundary) {
         super(parent, id.toLowerCase(), name, initialSpawn, boundary);
         assert !id.contains(".");
@@ -96,6 +99,7 @@ public class SteelArena extends CommonArena {
         checkArgument(stages != null && !stages.isEmpty(), "LifecycleStage set must not be null or empty");
         ((SteelMinigame) getMinigame()).getRoundMap().put(this, new SteelRound(this, stages));
         Preconditions.checkState(getRound().isPresent(), "Cannot get created round from arena! This is a bug.");
+        chunkResidency.pin(); // released by the round once it has ended and been rolled back
         return getRound().get();
     }
 
@@ -149,11 +153,35 @@ public class SteelArena extends CommonArena {
         }
     }
 
+    @Override
+    public void rollback() throws IllegalStateException, OrphanedComponentException {
+        super.rollback();
+        try {
+            getRollbackHelper().restoreJournal();
+            if (!getRound().isPresent()) {
+                // otherwise the round releases it when it ends
+                getRollbackHelper().closeStore();
+            }
+        } catch (IOException | SQLException ex) {
+            throw new RuntimeException("Failed to restore rollback journal for arena " + getId(), ex);
+        }
+    }
+
     @Override
     public RollbackHelper getRollbackHelper() {
         return (RollbackHelper) super.getRollbackHelper();
     }
 
+    /**
+     * Gets the {@link ChunkResidency} keeping this arena's chunks loaded while
+     * it hosts a round.
+     *
+     * @return This arena's {@link ChunkResidency}
+     */
+    public ChunkResidency getChunkResidency() {
+        return chunkResidency;
+    }
+
     private boolean checkLocationForLobbySign(Location3D location) throws IllegalArgumentException {
         checkArgument(location.getWorld().isPresent(), "Location for lobby sign must contain world");
         World world = Bukkit.getWorld(location.getWorld().get());
@@ -167,6 +195,7 @@ public class SteelArena extends CommonArena {
     private <T extends LobbySign> Optional<T> storeAndWrap(T sign) {
         ((SteelLobbySign) sign).store();
         getLobbySignMap().put(sign.getLocation(), sign);
+        ((SteelLobbySign) sign).index();
         return Optional.of(sign);
     }
 
@@ -180,6 +209,15 @@ public class SteelArena extends CommonArena {
      */
     @Override
     public void store() throws InvalidConfigurationException, IOException {
+        long start = SteelMetrics.STORE_IO.start();
+        try {
+            doStore();
+        } finally {
+            SteelMetrics.STORE_IO.stop(start);
+        }
+    }
+
+    private void doStore() throws InvalidConfigurationException, IOException {
         File arenaStore = DataFiles.ARENA_STORE.getFile(getMinigame());
         YamlConfiguration yaml = new YamlConfiguration();
         yaml.load(arenaStore);
@@ -207,6 +245,15 @@ public class SteelArena extends CommonArena {
      *     persistent store
      */
     public void removeFromStore() throws InvalidConfigurationException, IOException {
+        long start = SteelMetrics.STORE_IO.start();
+        try {
+            doRemoveFromStore();
+        } finally {
+            SteelMetrics.STORE_IO.stop(start);
+        }
+    }
+
+    private void doRemoveFromStore() throws InvalidConfigurationException, IOException {
         File arenaStore = DataFiles.ARENA_STORE.getFile(getMinigame());
         YamlConfiguration yaml = new YamlConfiguration();
         yaml.load(arenaStore);
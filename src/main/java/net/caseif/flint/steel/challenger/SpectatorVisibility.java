@@ -0,0 +1,124 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016, Max Roncace <me@caseif.net>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.caseif.flint.steel.challenger;
+
+import net.caseif.flint.steel.util.helper.PlayerHelper;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Static manager for the visibility of spectating challengers on servers
+ * without native spectator support.
+ *
+ * <p>For each hidden spectator, the viewers it was hidden from by Steel are
+ * tracked so that only those pairs are revealed again, leaving players hidden
+ * by other plugins untouched. Only the delta is applied when a challenger
+ * begins or stops spectating or a player joins or leaves the server.</p>
+ *
+ * <p>This class must only be used from the main thread.</p>
+ */
+public final class SpectatorVisibility {
+
+    // spectator -> viewers the spectator has been hidden from by us
+    private static final Map<UUID, Set<UUID>> HIDDEN = new HashMap<>();
+
+    private SpectatorVisibility() {
+    }
+
+    /**
+     * Hides the given spectator from all online players.
+     *
+     * @param spectator The spectating {@link Player} to hide
+     */
+    public static void hide(Player spectator) {
+        if (HIDDEN.containsKey(spectator.getUniqueId())) {
+            return;
+        }
+        Set<UUID> viewers = new HashSet<>();
+        for (Player viewer : PlayerHelper.getOnlinePlayers()) {
+            if (viewer != spectator && viewer.canSee(spectator)) {
+                viewer.hidePlayer(spectator);
+                viewers.add(viewer.getUniqueId());
+            }
+        }
+        HIDDEN.put(spectator.getUniqueId(), viewers);
+    }
+
+    /**
+     * Reveals the given spectator to the players it was hidden from.
+     *
+     * @param spectator The {@link Player} to reveal
+     */
+    public static void show(Player spectator) {
+        Set<UUID> viewers = HIDDEN.remove(spectator.getUniqueId());
+        if (viewers == null) {
+            return;
+        }
+        for (UUID uuid : viewers) {
+            Player viewer = Bukkit.getPlayer(uuid);
+            if (viewer != null) {
+                viewer.showPlayer(spectator);
+            }
+        }
+    }
+
+    /**
+     * Hides all current spectators from the given newly joined player.
+     *
+     * @param viewer The {@link Player} who joined
+     */
+    public static void handleJoin(Player viewer) {
+        for (Map.Entry<UUID, Set<UUID>> e : HIDDEN.entrySet()) {
+            Player spectator = Bukkit.getPlayer(e.getKey());
+            if (spectator != null && spectator != viewer && viewer.canSee(spectator)) {
+                viewer.hidePlayer(spectator);
+                e.getValue().add(viewer.getUniqueId());
+            }
+        }
+    }
+
+    /**
+     * Discards all visibility state involving the given player, revealing
+     * them first if they are a hidden spectator.
+     *
+     * @param player The {@link Player} who is leaving
+     */
+    public static void handleQuit(Player player) {
+        // viewers otherwise keep hiding the player across reconnects
+        show(player);
+        Iterator<Set<UUID>> it = HIDDEN.values().iterator();
+        while (it.hasNext()) {
+            it.next().remove(player.getUniqueId());
+        }
+    }
+
+}
@@ -27,14 +27,11 @@ import net.caseif.flint.challenger.Challenger;
 import net.caseif.flint.common.challenger.CommonChallenger;
 import net.caseif.flint.steel.SteelCore;
 import net.caseif.flint.steel.round.SteelRound;
-import net.caseif.flint.steel.util.helper.PlayerHelper;
 
 import org.bukkit.Bukkit;
 import org.bukkit.GameMode;
 import org.bukkit.entity.Player;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.UUID;
 
 /**
@@ -46,7 +43,6 @@ public class SteelChallenger extends CommonChallenger {
 
     private GameMode prevGameMode;
     private boolean hadFlight;
-    private List<UUID> alreadyInvisibleTo = new ArrayList<>();
 
     public SteelChallenger(UUID uuid, SteelRound round) {
         super(uuid, Bukkit.getPlayer(uuid).getName(), round);
@@ -63,9 +59,7 @@ public class SteelChallenger extends CommonChallenger {
                 pl.setGameMode(GameMode.SPECTATOR);
             } else {
                 pl.setGameMode(GameMode.ADVENTURE);
-                for (Player p : PlayerHelper.getOnlinePlayers()) {
-                    tryHide(pl, p);
-                }
+                SpectatorVisibility.hide(pl);
                 hadFlight = pl.getAllowFlight();
                 pl.setAllowFlight(true);
             }
@@ -75,24 +69,11 @@ public class SteelChallenger extends CommonChallenger {
                 prevGameMode = null;
             }
             if (!SteelCore.SPECTATOR_SUPPORT) {
-                for (Player p : PlayerHelper.getOnlinePlayers()) {
-                    if (!alreadyInvisibleTo.contains(p.getUniqueId())) {
-                        p.showPlayer(pl);
-                    }
-                    alreadyInvisibleTo.clear();
-                }
+                SpectatorVisibility.show(pl);
                 pl.setAllowFlight(hadFlight);
                 hadFlight = false;
             }
         }
     }
 
-    public void tryHide(Player hidden, Player viewer) {
-        if (viewer.canSee(hidden)) {
-            viewer.hidePlayer(hidden);
-        } else {
-            alreadyInvisibleTo.add(viewer.getUniqueId());
-        }
-    }
-
 }
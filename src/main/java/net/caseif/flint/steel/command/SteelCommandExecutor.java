@@ -0,0 +1,173 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016, Max Roncace <me@caseif.net>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.caseif.flint.steel.command;
+
+import net.caseif.flint.steel.SteelMain;
+import net.caseif.flint.steel.util.metrics.Histogram;
+import net.caseif.flint.steel.util.metrics.Metric;
+import net.caseif.flint.steel.util.metrics.MetricRegistry;
+import net.caseif.flint.steel.util.profiler.SteelProfiler;
+
+import org.bukkit.ChatColor;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.command.CommandSender;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executor for the {@code /steel} command.
+ */
+public class SteelCommandExecutor implements CommandExecutor {
+
+    private static final String SUBCOMMAND_METRICS = "metrics";
+    private static final String SUBCOMMAND_PROFILER = "profiler";
+    private static final String ARG_RESET = "reset";
+    private static final String ARG_ON = "on";
+    private static final String ARG_OFF = "off";
+    private static final String ARG_REPORT = "report";
+
+    private static final String CONFIG_PROFILER_WINDOW_KEY = "profiler-window";
+    private static final long DEFAULT_PROFILER_WINDOW = 60;
+    private static final int REPORT_LIMIT = 10;
+
+    private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private static final ChatColor HEADER_COLOR = ChatColor.GOLD;
+    private static final ChatColor NAME_COLOR = ChatColor.DARK_AQUA;
+    private static final ChatColor VALUE_COLOR = ChatColor.GRAY;
+    private static final ChatColor ERROR_COLOR = ChatColor.RED;
+
+    @Override
+    public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
+        if (args.length == 0) {
+            return false;
+        }
+        switch (args[0].toLowerCase()) {
+            case SUBCOMMAND_METRICS: {
+                handleMetrics(sender, args);
+                return true;
+            }
+            case SUBCOMMAND_PROFILER: {
+                return handleProfiler(sender, args);
+            }
+            default: {
+                sender.sendMessage(ERROR_COLOR + "Unknown subcommand \"" + args[0] + "\"");
+                return false;
+            }
+        }
+    }
+
+    private void handleMetrics(CommandSender sender, String[] args) {
+        if (args.length > 1 && args[1].equalsIgnoreCase(ARG_RESET)) {
+            MetricRegistry.resetAll();
+            sender.sendMessage(HEADER_COLOR + "Steel metrics have been reset.");
+            return;
+        }
+        sender.sendMessage(HEADER_COLOR + "Steel metrics:");
+        for (Metric metric : MetricRegistry.getMetrics()) {
+            StringBuilder sb = new StringBuilder();
+            sb.append(NAME_COLOR).append(metric.getName()).append(":").append(VALUE_COLOR);
+            for (Map.Entry<String, Number> e : metric.getValues().entrySet()) {
+                sb.append(" ").append(e.getKey()).append("=").append(format(e.getValue()));
+            }
+            sender.sendMessage(sb.toString());
+        }
+    }
+
+    private boolean handleProfiler(CommandSender sender, String[] args) {
+        if (args.length < 2) {
+            return false;
+        }
+        SteelMain plugin = SteelMain.getInstance();
+        switch (args[1].toLowerCase()) {
+            case ARG_ON: {
+                if (SteelProfiler.isEnabled()) {
+                    sender.sendMessage(ERROR_COLOR + "The profiler is already enabled.");
+                    return true;
+                }
+                long window = plugin.getConfig().getLong(CONFIG_PROFILER_WINDOW_KEY, DEFAULT_PROFILER_WINDOW);
+                SteelProfiler.enable(plugin, plugin.getListeners(), window);
+                sender.sendMessage(HEADER_COLOR + "Steel profiler enabled with a window of " + window + " seconds.");
+                return true;
+            }
+            case ARG_OFF: {
+                if (!SteelProfiler.isEnabled()) {
+                    sender.sendMessage(ERROR_COLOR + "The profiler is not enabled.");
+                    return true;
+                }
+                SteelProfiler.disable(plugin, plugin.getListeners());
+                sender.sendMessage(HEADER_COLOR + "Steel profiler disabled.");
+                return true;
+            }
+            case ARG_REPORT: {
+                sendProfilerReport(sender);
+                return true;
+            }
+            case ARG_RESET: {
+                SteelProfiler.reset();
+                sender.sendMessage(HEADER_COLOR + "Steel profiler data has been reset.");
+                return true;
+            }
+            default: {
+                return false;
+            }
+        }
+    }
+
+    private void sendProfilerReport(CommandSender sender) {
+        if (!SteelProfiler.isEnabled()) {
+            sender.sendMessage(ERROR_COLOR + "The profiler is not enabled.");
+            return;
+        }
+        sender.sendMessage(HEADER_COLOR + "Most expensive handlers and tasks:");
+        for (Histogram window : SteelProfiler.getWorstSections(REPORT_LIMIT)) {
+            sender.sendMessage(NAME_COLOR + window.getName() + ":" + VALUE_COLOR
+                    + " total=" + formatMillis(window.getSum())
+                    + " count=" + window.getCount()
+                    + " mean=" + formatMillis((long) window.getMean())
+                    + " p99=" + formatMillis(window.getPercentile(99))
+                    + " max=" + formatMillis(window.getMax()));
+        }
+        sender.sendMessage(HEADER_COLOR + "Most frequently handled events:");
+        for (Histogram window : SteelProfiler.getBusiestEvents(REPORT_LIMIT)) {
+            sender.sendMessage(NAME_COLOR + window.getName() + ":" + VALUE_COLOR
+                    + " count=" + window.getCount()
+                    + " total=" + formatMillis(window.getSum()));
+        }
+    }
+
+    private static String formatMillis(long nanos) {
+        return String.format("%.3fms", nanos / NANOS_PER_MILLI);
+    }
+
+    private static String format(Number value) {
+        if (value instanceof Double || value instanceof Float) {
+            return String.format("%.2f", value.doubleValue());
+        }
+        return value.toString();
+    }
+
+}
@@ -27,27 +27,19 @@ import net.caseif.flint.challenger.Challenger;
 import net.caseif.flint.common.CommonCore;
 import net.caseif.flint.minigame.Minigame;
 import net.caseif.flint.steel.SteelCore;
-import net.caseif.flint.steel.challenger.SteelChallenger;
+import net.caseif.flint.steel.challenger.SpectatorVisibility;
 import net.caseif.flint.steel.minigame.SteelMinigame;
 import net.caseif.flint.steel.round.SteelRound;
-import net.caseif.flint.steel.util.file.DataFiles;
 import net.caseif.flint.steel.util.helper.PlayerHelper;
 
 import com.google.common.base.Optional;
-import org.bukkit.Bukkit;
-import org.bukkit.configuration.InvalidConfigurationException;
-import org.bukkit.configuration.file.YamlConfiguration;
-import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 
-import java.io.File;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.UUID;
 
 /**
@@ -57,36 +49,16 @@ import java.util.UUID;
  */
 public class PlayerConnectionListener implements Listener {
 
-    /**
-     * Config key for the list of offline players that need to be reset on join.
-     */
-    private static final String OFFLINE_PLAYER_LIST_KEY = "offline";
-
     @EventHandler(priority = EventPriority.MONITOR)
     public void onPlayerQuit(PlayerQuitEvent event) {
         UUID uuid = event.getPlayer().getUniqueId();
         Optional<Challenger> ch = CommonCore.getChallenger(uuid);
         if (ch.isPresent()) {
-            // store the player to disk so their inventory and location can be popped later
+            // the player's stored state is kept on disk and restored when they next join
             ((SteelRound)ch.get().getRound()).removeChallenger(ch.get(), true, true);
-
-            try {
-                File offlinePlayers = DataFiles.OFFLINE_PLAYER_STORE.getFile();
-                YamlConfiguration yaml = new YamlConfiguration();
-                yaml.load(offlinePlayers);
-
-                List<String> players = yaml.getStringList(OFFLINE_PLAYER_LIST_KEY);
-                if (players == null) {
-                    players = new ArrayList<>();
-                }
-                players.add(uuid.toString());
-                yaml.set(OFFLINE_PLAYER_LIST_KEY, players);
-                yaml.save(offlinePlayers);
-            } catch (InvalidConfigurationException | IOException ex) {
-                ex.printStackTrace();
-                SteelCore.logSevere("Failed to store data for disconnecting challenger "
-                        + event.getPlayer().getName());
-            }
+        }
+        if (!SteelCore.SPECTATOR_SUPPORT) {
+            SpectatorVisibility.handleQuit(event.getPlayer());
         }
 
         for (Minigame mg : CommonCore.getMinigames().values()) {
@@ -100,72 +72,19 @@ public class PlayerConnectionListener implements Listener {
     @EventHandler(priority = EventPriority.MONITOR)
     public void onPlayerJoin(PlayerJoinEvent event) {
         if (!SteelCore.SPECTATOR_SUPPORT) {
-            for (Minigame mg : SteelCore.getMinigames().values()) {
-                for (Challenger ch : mg.getChallengers()) {
-                    if (ch.isSpectating()) {
-                        ((SteelChallenger) ch).tryHide(Bukkit.getPlayer(ch.getUniqueId()), event.getPlayer());
-                    }
-                }
-            }
-        }
-
-        tryReset(event.getPlayer());
-
-        // the rest of the method is insurance against a catastrophic failure
-        // of the server while players are still in a round
-        try {
-            PlayerHelper.popInventory(event.getPlayer());
-        } catch (IllegalArgumentException ignored) { // don't need to pop, so we can ignore it
-        } catch (InvalidConfigurationException | IOException ex) {
-            // inventory was present but Something Happened™
-            SteelCore.logSevere("Failed to pop inventory for player " + event.getPlayer().getName());
-            ex.printStackTrace();
+            SpectatorVisibility.handleJoin(event.getPlayer());
         }
 
-        try {
-            PlayerHelper.popLocation(event.getPlayer());
-        } catch (IllegalArgumentException ignored) { // don't need to pop, so we can ignore it
-        } catch (InvalidConfigurationException | IOException ex) {
-            // location was present but Something Happened™
-            SteelCore.logSevere("Failed to pop location for player " + event.getPlayer().getName());
-            ex.printStackTrace();
-        }
-    }
-
-    private void tryReset(Player player) {
-        UUID uuid = player.getUniqueId();
-        try {
-            File offlinePlayers = DataFiles.OFFLINE_PLAYER_STORE.getFile();
-            YamlConfiguration yaml = new YamlConfiguration();
-            yaml.load(offlinePlayers);
-
-            if (yaml.isSet(OFFLINE_PLAYER_LIST_KEY)) {
-                List<String> players = yaml.getStringList(OFFLINE_PLAYER_LIST_KEY);
-                // check whether the player left while in a round
-                if (players.contains(uuid.toString())) {
-
-                    // these two try-blocks are separate so they can both run even if one fails
-                    try {
-                        PlayerHelper.popInventory(player);
-                    } catch (IllegalArgumentException | InvalidConfigurationException | IOException ex) {
-                        SteelCore.logSevere("Failed to pop inventory for player " + player.getName());
-                        ex.printStackTrace();
-                    }
-
-                    players.remove(uuid.toString());
-                    yaml.set(OFFLINE_PLAYER_LIST_KEY, players);
-                    yaml.save(offlinePlayers);
-                    try {
-                        PlayerHelper.popLocation(player);
-                    } catch (IllegalArgumentException | InvalidConfigurationException | IOException ex) {
-                        SteelCore.logSevere("Failed to pop location for player " + player.getName());
-                        ex.printStackTrace();
-                    }
-                }
+        // restore the state of players who disconnected during a round or were
+        // still in one when the server failed catastrophically
+        if (PlayerHelper.hasStoredState(event.getPlayer().getUniqueId())) {
+            try {
+                PlayerHelper.restoreState(event.getPlayer());
+            } catch (IOException ex) {
+                // state was present but Something Happened™
+                SteelCore.logSevere("Failed to restore state of player " + event.getPlayer().getName());
+                ex.printStackTrace();
             }
-        } catch (InvalidConfigurationException | IOException ex) {
-            ex.printStackTrace();
-            SteelCore.logSevere("Failed to load offline player data");
         }
     }
 
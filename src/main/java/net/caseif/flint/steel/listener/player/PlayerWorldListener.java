@@ -25,13 +25,16 @@ package net.caseif.flint.steel.listener.player;
 
 import net.caseif.flint.challenger.Challenger;
 import net.caseif.flint.common.CommonCore;
-import net.caseif.flint.config.ConfigNode;
 import net.caseif.flint.minigame.Minigame;
 import net.caseif.flint.steel.SteelCore;
 import net.caseif.flint.steel.lobby.wizard.WizardManager;
 import net.caseif.flint.steel.minigame.SteelMinigame;
+import net.caseif.flint.steel.round.RoundConfig;
+import net.caseif.flint.steel.round.SteelRound;
 import net.caseif.flint.steel.util.helper.ChatHelper;
+import net.caseif.flint.steel.util.helper.CommandMatcher;
 import net.caseif.flint.steel.util.helper.LocationHelper;
+import net.caseif.flint.steel.util.metrics.SteelMetrics;
 import net.caseif.flint.util.physical.Boundary;
 
 import com.google.common.base.Optional;
@@ -52,6 +55,7 @@ import org.bukkit.event.hanging.HangingBreakByEntityEvent;
 import org.bukkit.event.inventory.InventoryInteractEvent;
 import org.bukkit.event.player.AsyncPlayerChatEvent;
 import org.bukkit.event.player.PlayerCommandPreprocessEvent;
+import org.bukkit.event.player.PlayerDropItemEvent;
 import org.bukkit.event.player.PlayerInteractEvent;
 import org.bukkit.event.player.PlayerTeleportEvent;
 import org.bukkit.inventory.InventoryHolder;
@@ -79,7 +83,7 @@ public class PlayerWorldListener implements Listener {
                 Boundary bound = challenger.get().getRound().getArena().getBoundary();
                 // check whether the player is teleporting out of the arena boundary
                 if (!bound.contains(LocationHelper.convertLocation(event.getTo()))) {
-                    if (challenger.get().getRound().getConfigValue(ConfigNode.ALLOW_EXIT_BOUNDARY)) {
+                    if (((SteelRound) challenger.get().getRound()).getConfig().isExitBoundaryAllowed()) {
                         challenger.get().removeFromRound();
                     } else {
                         event.setCancelled(true);
@@ -91,6 +95,15 @@ public class PlayerWorldListener implements Listener {
 
     @EventHandler(priority = EventPriority.LOW)
     public void onPlayerChat(AsyncPlayerChatEvent event) {
+        long start = SteelMetrics.CHAT_FILTER.start();
+        try {
+            filterChat(event);
+        } finally {
+            SteelMetrics.CHAT_FILTER.stop(start);
+        }
+    }
+
+    private void filterChat(AsyncPlayerChatEvent event) {
         // iterate minigames
         for (Minigame mg : SteelCore.getMinigames().values()) {
             // get the wizard manager for the minigame
@@ -144,9 +157,10 @@ public class PlayerWorldListener implements Listener {
                 // check whether they're in the same round
                 if (challenger.get().getRound() == damager.get().getRound()) {
                     // check whether damage is disabled entirely
-                    if (!challenger.get().getRound().getConfigValue(ConfigNode.ALLOW_DAMAGE)) {
+                    RoundConfig config = ((SteelRound) challenger.get().getRound()).getConfig();
+                    if (!config.isDamageAllowed()) {
                         cancelled = true;
-                    } else if (!challenger.get().getRound().getConfigValue(ConfigNode.ALLOW_FRIENDLY_FIRE)) {
+                    } else if (!config.isFriendlyFireAllowed()) {
                         // check whether friendly fire is disabled
                         // check if they're on the same team
                         if (challenger.get().getTeam().orNull() == damager.get().getTeam().orNull()) {
@@ -199,13 +213,19 @@ public class PlayerWorldListener implements Listener {
         }
     }
 
+    @EventHandler
+    public void onPlayerDropItem(PlayerDropItemEvent event) {
+        processEvent(event, event.getPlayer());
+    }
+
     @EventHandler
     public void onPlayerCommandPreprocessEvent(PlayerCommandPreprocessEvent event) {
-        if (event.getMessage().startsWith("/suicide") || event.getMessage().startsWith("/kill")) {
+        String[] args = CommandMatcher.normalize(event.getMessage()).split(" ");
+        if (args[0].equals("suicide") || args[0].equals("kill")) {
             UUID uuid;
             @SuppressWarnings("deprecation")
-            Player pl = event.getMessage().startsWith("/kill ")
-                    ? Bukkit.getPlayer(event.getMessage().split(" ")[1])
+            Player pl = args[0].equals("kill") && args.length > 1
+                    ? Bukkit.getPlayer(args[1])
                     : event.getPlayer();
             if (pl == null) {
                 return;
@@ -223,8 +243,7 @@ public class PlayerWorldListener implements Listener {
 
         Optional<Challenger> ch = CommonCore.getChallenger(event.getPlayer().getUniqueId());
         if (ch.isPresent()) {
-            if (ch.get().getRound().getConfigValue(ConfigNode.FORBIDDEN_COMMANDS)
-                    .contains(event.getMessage().substring(1))) {
+            if (((SteelRound) ch.get().getRound()).getConfig().getForbiddenCommands().matches(event.getMessage())) {
                 event.setCancelled(true);
                 event.getPlayer().sendMessage(ChatColor.RED
                         + "You may not run this command while in a minigame round");
@@ -233,6 +252,11 @@ public class PlayerWorldListener implements Listener {
     }
 
     private void processEvent(Cancellable event, Player player) {
+        // players returned from an ended round keep its inventory until their stored state is applied
+        if (SteelRound.isRestorePending(player.getUniqueId())) {
+            event.setCancelled(true);
+            return;
+        }
         if (!SteelCore.SPECTATOR_SUPPORT) {
             Optional<Challenger> ch = CommonCore.getChallenger(player.getUniqueId());
             if (ch.isPresent() && ch.get().isSpectating()) {
@@ -26,6 +26,7 @@ package net.caseif.flint.steel.listener.plugin;
 import net.caseif.flint.minigame.Minigame;
 import net.caseif.flint.round.Round;
 import net.caseif.flint.steel.SteelCore;
+import net.caseif.flint.steel.lobby.SteelLobbySign;
 
 import com.google.common.collect.ImmutableList;
 import org.bukkit.event.EventHandler;
@@ -46,6 +47,7 @@ public class PluginListener implements Listener {
             for (Round round : rounds) {
                 round.end();
             }
+            SteelLobbySign.unindexAll(mg);
         }
     }
 
@@ -23,11 +23,13 @@
  */
 package net.caseif.flint.steel.lobby;
 
+import net.caseif.flint.arena.Arena;
 import net.caseif.flint.common.arena.CommonArena;
 import net.caseif.flint.common.lobby.CommonLobbySign;
 import net.caseif.flint.lobby.LobbySign;
 import net.caseif.flint.lobby.type.ChallengerListingLobbySign;
 import net.caseif.flint.lobby.type.StatusLobbySign;
+import net.caseif.flint.minigame.Minigame;
 import net.caseif.flint.steel.SteelCore;
 import net.caseif.flint.steel.SteelMain;
 import net.caseif.flint.steel.arena.SteelArena;
@@ -35,9 +37,12 @@ import net.caseif.flint.steel.lobby.type.SteelChallengerListingLobbySign;
 import net.caseif.flint.steel.lobby.type.SteelStatusLobbySign;
 import net.caseif.flint.steel.util.file.DataFiles;
 import net.caseif.flint.steel.util.helper.LocationHelper;
+import net.caseif.flint.steel.util.metrics.SteelMetrics;
 import net.caseif.flint.util.physical.Location3D;
 
+import com.google.common.base.Optional;
 import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
 import org.bukkit.World;
 import org.bukkit.block.Block;
 import org.bukkit.block.Sign;
@@ -47,6 +52,10 @@ import org.bukkit.configuration.file.YamlConfiguration;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Implements {@link LobbySign}.
@@ -61,6 +70,12 @@ public abstract class SteelLobbySign extends CommonLobbySign {
 
     private static final String PERSIST_INDEX_KEY = "index";
 
+    // all registered signs across every minigame, so interaction handling needs only one lookup
+    private static final Map<Location3D, SteelLobbySign> SIGN_INDEX = new HashMap<>();
+
+    // signs which were skipped while their chunk was unloaded, keyed by chunk
+    private static final Map<String, Set<SteelLobbySign>> STALE_SIGNS = new HashMap<>();
+
     public SteelLobbySign(Location3D location, CommonArena arena) {
         super(location, arena);
         final LobbySign sign = this;
@@ -75,6 +90,7 @@ public abstract class SteelLobbySign extends CommonLobbySign {
     @Override
     public void unregister() {
         super.unregister();
+        unindex();
         // blank the physical sign block
         World world = Bukkit.getWorld(getLocation().getWorld().get());
         if (world == null) {
@@ -110,7 +126,117 @@ public abstract class SteelLobbySign extends CommonLobbySign {
         return world.getBlockAt((int) getLocation().getX(), (int) getLocation().getY(), (int) getLocation().getZ());
     }
 
+    /**
+     * Adds this sign to the global lobby sign index.
+     */
+    public void index() {
+        SIGN_INDEX.put(getLocation(), this);
+    }
+
+    /**
+     * Removes this sign from the global lobby sign index, along with any
+     * pending update awaiting the load of its chunk.
+     */
+    public void unindex() {
+        if (SIGN_INDEX.get(getLocation()) == this) {
+            SIGN_INDEX.remove(getLocation());
+        }
+        Set<SteelLobbySign> stale = STALE_SIGNS.get(getChunkKey());
+        if (stale != null && stale.remove(this) && stale.isEmpty()) {
+            STALE_SIGNS.remove(getChunkKey());
+        }
+    }
+
+    /**
+     * Removes all lobby signs of the given {@link Minigame} from the global
+     * lobby sign index, so that they no longer handle interaction or chunk
+     * loads once the minigame's plugin is disabled.
+     *
+     * @param minigame The {@link Minigame} to remove the lobby signs of
+     */
+    public static void unindexAll(Minigame minigame) {
+        for (Arena arena : minigame.getArenas()) {
+            for (LobbySign sign : arena.getLobbySigns()) {
+                ((SteelLobbySign) sign).unindex();
+            }
+        }
+    }
+
+    /**
+     * Gets the lobby sign registered at the given location by any minigame.
+     *
+     * @param location The location to look up
+     * @return The lobby sign at the given location, or
+     *     {@link Optional#absent()} if none is registered there
+     */
+    public static Optional<SteelLobbySign> getLobbySignAt(Location3D location) {
+        return Optional.fromNullable(SIGN_INDEX.get(location));
+    }
+
+    /**
+     * Checks whether the chunk containing this sign is loaded. If it is not,
+     * the sign is marked as stale so that it is updated once the chunk loads.
+     *
+     * <p>Signs must not be rendered while their chunk is unloaded, since
+     * accessing the block would load the chunk.</p>
+     *
+     * @return Whether the chunk containing this sign is loaded
+     */
+    protected boolean checkChunkLoaded() {
+        World world = Bukkit.getWorld(getLocation().getWorld().get());
+        if (world != null && world.isChunkLoaded((int) getLocation().getX() >> 4, (int) getLocation().getZ() >> 4)) {
+            return true;
+        }
+        String key = getChunkKey();
+        Set<SteelLobbySign> stale = STALE_SIGNS.get(key);
+        if (stale == null) {
+            stale = new HashSet<>();
+            STALE_SIGNS.put(key, stale);
+        }
+        stale.add(this);
+        return false;
+    }
+
+    /**
+     * Updates all lobby signs in the given {@link Chunk} which were skipped
+     * while it was unloaded.
+     *
+     * @param chunk The {@link Chunk} which has been loaded
+     */
+    public static void updateStaleSigns(Chunk chunk) {
+        Set<SteelLobbySign> stale = STALE_SIGNS.remove(getChunkKey(chunk.getWorld().getName(), chunk.getX(),
+                chunk.getZ()));
+        if (stale == null) {
+            return;
+        }
+        for (SteelLobbySign sign : stale) {
+            try {
+                sign.update();
+            } catch (IllegalStateException ex) {
+                SteelCore.logVerbose(ex.getMessage());
+            }
+        }
+    }
+
+    private String getChunkKey() {
+        return getChunkKey(getLocation().getWorld().get(), (int) getLocation().getX() >> 4,
+                (int) getLocation().getZ() >> 4);
+    }
+
+    private static String getChunkKey(String world, int chunkX, int chunkZ) {
+        return world + ":" + chunkX + ":" + chunkZ;
+    }
+
     private void store(boolean remove) {
+        long start = SteelMetrics.STORE_IO.start();
+        try {
+            doStore(remove);
+        } finally {
+            SteelMetrics.STORE_IO.stop(start);
+        }
+    }
+
+    private void doStore(boolean remove) {
         try {
             YamlConfiguration yaml = new YamlConfiguration();
             File f = DataFiles.LOBBY_STORE.getFile(getArena().getMinigame());
@@ -131,8 +257,8 @@ public abstract class SteelLobbySign extends CommonLobbySign {
                 if (arenaSection.isSet(locSerial)) {
                     arenaSection.set(locSerial, null);
                 } else {
-                    SteelCore.logWarning("Engine requested removal of lobby sign from store, but respective section "
-                            + "was not defined");
+                    SteelCore.logWarning("Engine requested removal of lobby sign from store, but respective "
+                            + "section was not defined");
                 }
             } else {
                 ConfigurationSection signSection = arenaSection.createSection(locSerial);
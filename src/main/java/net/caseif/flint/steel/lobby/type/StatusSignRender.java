@@ -0,0 +1,101 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016, Max Roncace <me@caseif.net>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.caseif.flint.steel.lobby.type;
+
+import net.caseif.flint.round.LifecycleStage;
+import net.caseif.flint.steel.round.SteelRound;
+
+/**
+ * Immutable, preformatted contents of a {@link SteelStatusLobbySign} for a
+ * given state of a round.
+ *
+ * <p>A single render is shared by all status signs of an arena and is only
+ * rebuilt when one of the displayed values changes.</p>
+ */
+public final class StatusSignRender {
+
+    private final String arenaName;
+    private final LifecycleStage stage;
+    private final long seconds;
+    private final int players;
+    private final int maxPlayers;
+
+    private final String[] lines;
+
+    private StatusSignRender(String arenaName, LifecycleStage stage, long seconds, int players, int maxPlayers) {
+        this.arenaName = arenaName;
+        this.stage = stage;
+        this.seconds = seconds;
+        this.players = players;
+        this.maxPlayers = maxPlayers;
+
+        lines = new String[4];
+        lines[0] = SteelStatusLobbySign.ARENA_COLOR + arenaName;
+        lines[1] = SteelStatusLobbySign.LIFECYCLE_STAGE_COLOR + stage.getId().toUpperCase();
+        lines[2] = SteelStatusLobbySign.TIMER_COLOR.toString() + seconds / 60 + ":"
+                + (seconds % 60 >= 10 ? "" : "0") + seconds % 60;
+        // format player count relative to max
+        String playerCount = players + "/" + (maxPlayers > 0 ? maxPlayers : "∞");
+        // add label to player count (shortened version used if the full one won't fit)
+        playerCount += playerCount.length() <= 5 ? " players" : (playerCount.length() <= 7 ? " plyrs" : "");
+        lines[3] = SteelStatusLobbySign.PLAYER_COUNT_COLOR + playerCount;
+    }
+
+    /**
+     * Gets a render reflecting the current state of the given round, reusing
+     * the given previous render if nothing displayed has changed.
+     *
+     * @param previous The previous render for the round, or {@code null} if
+     *     none exists
+     * @param round The round to render
+     * @return A render reflecting the current state of the round
+     */
+    public static StatusSignRender refresh(StatusSignRender previous, SteelRound round) {
+        String arenaName = round.getArena().getName();
+        LifecycleStage stage = round.getLifecycleStage();
+        long seconds = round.getRemainingTime() != -1 ? round.getRemainingTime() : round.getTime();
+        int players = round.getChallengerCount();
+        int maxPlayers = round.getConfig().getMaxPlayers();
+        if (previous != null
+                && previous.stage == stage
+                && previous.seconds == seconds
+                && previous.players == players
+                && previous.maxPlayers == maxPlayers
+                && previous.arenaName.equals(arenaName)) {
+            return previous;
+        }
+        return new StatusSignRender(arenaName, stage, seconds, players, maxPlayers);
+    }
+
+    /**
+     * Gets the formatted line at the given index.
+     *
+     * @param index The index of the line
+     * @return The formatted line
+     */
+    public String getLine(int index) {
+        return lines[index];
+    }
+
+}
@@ -26,15 +26,21 @@ package net.caseif.flint.steel.lobby.type;
 import net.caseif.flint.common.arena.CommonArena;
 import net.caseif.flint.component.exception.OrphanedComponentException;
 import net.caseif.flint.lobby.type.ChallengerListingLobbySign;
+import net.caseif.flint.round.Round;
 import net.caseif.flint.steel.SteelCore;
 import net.caseif.flint.steel.SteelMain;
 import net.caseif.flint.steel.lobby.SteelLobbySign;
+import net.caseif.flint.steel.round.SteelRound;
+import net.caseif.flint.steel.util.metrics.SteelMetrics;
 import net.caseif.flint.util.physical.Location3D;
 
+import com.google.common.base.Optional;
 import org.bukkit.Bukkit;
 import org.bukkit.block.Block;
 import org.bukkit.block.Sign;
 
+import java.util.Arrays;
+
 /**
  * Implements {@link ChallengerListingLobbySign}.
  *
@@ -42,8 +48,13 @@ import org.bukkit.block.Sign;
  */
 public class SteelChallengerListingLobbySign extends SteelLobbySign implements ChallengerListingLobbySign {
 
+    private static final int LINE_COUNT = 4;
+    private static final String[] NO_NAMES = new String[0];
+
     private final int index;
 
+    private String[] lastLines;
+
     public SteelChallengerListingLobbySign(Location3D location, CommonArena arena, int index) {
         super(location, arena);
         this.index = index;
@@ -56,6 +67,21 @@ public class SteelChallengerListingLobbySign extends SteelLobbySign implements C
 
     @Override
     public void update() {
+        Optional<Round> round = getArena().getRound();
+        String[] names = round.isPresent() ? ((SteelRound) round.get()).getChallengerNames() : NO_NAMES;
+        int startIndex = getIndex() * LINE_COUNT;
+        String[] lines = new String[LINE_COUNT];
+        for (int i = 0; i < LINE_COUNT; i++) {
+            lines[i] = startIndex + i < names.length ? names[startIndex + i] : "";
+        }
+        if (Arrays.equals(lines, lastLines)) {
+            return; // this sign's page hasn't changed
+        }
+        if (!checkChunkLoaded()) {
+            return; // updated once the chunk loads
+        }
+
+        SteelMetrics.SIGN_UPDATES.increment();
         Block b = getBlock();
         if (!(b.getState() instanceof Sign)) {
             // hehe, illegal "state"
@@ -65,15 +91,10 @@ public class SteelChallengerListingLobbySign extends SteelLobbySign implements C
                     + "): not a sign. Removing...");
         }
         final Sign sign = (Sign) b.getState();
-        int startIndex = getIndex() * sign.getLines().length;
-        boolean round = getArena().getRound().isPresent();
-        for (int i = 0; i < sign.getLines().length; i++) {
-            if (round && startIndex + i < getArena().getRound().get().getChallengers().size()) {
-                sign.setLine(i, getArena().getRound().get().getChallengers().get(startIndex + i).getName());
-            } else {
-                sign.setLine(i, "");
-            }
+        for (int i = 0; i < LINE_COUNT; i++) {
+            sign.setLine(i, lines[i]);
         }
+        lastLines = lines;
         Bukkit.getScheduler().runTask(SteelMain.getInstance(), new Runnable() {
             public void run() {
                 sign.update(true);
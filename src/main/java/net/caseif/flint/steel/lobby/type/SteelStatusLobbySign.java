@@ -24,12 +24,15 @@
 package net.caseif.flint.steel.lobby.type;
 
 import net.caseif.flint.common.arena.CommonArena;
-import net.caseif.flint.config.ConfigNode;
 import net.caseif.flint.lobby.type.StatusLobbySign;
+import net.caseif.flint.round.Round;
 import net.caseif.flint.steel.SteelMain;
 import net.caseif.flint.steel.lobby.SteelLobbySign;
+import net.caseif.flint.steel.round.SteelRound;
+import net.caseif.flint.steel.util.metrics.SteelMetrics;
 import net.caseif.flint.util.physical.Location3D;
 
+import com.google.common.base.Optional;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.block.Block;
@@ -40,10 +43,13 @@ import org.bukkit.block.Sign;
  */
 public class SteelStatusLobbySign extends SteelLobbySign implements StatusLobbySign {
 
-    private static ChatColor ARENA_COLOR = ChatColor.DARK_AQUA;
-    private static ChatColor LIFECYCLE_STAGE_COLOR = ChatColor.DARK_PURPLE;
-    private static ChatColor TIMER_COLOR = ChatColor.DARK_PURPLE;
-    private static ChatColor PLAYER_COUNT_COLOR = ChatColor.DARK_BLUE;
+    static final ChatColor ARENA_COLOR = ChatColor.DARK_AQUA;
+    static final ChatColor LIFECYCLE_STAGE_COLOR = ChatColor.DARK_PURPLE;
+    static final ChatColor TIMER_COLOR = ChatColor.DARK_PURPLE;
+    static final ChatColor PLAYER_COUNT_COLOR = ChatColor.DARK_BLUE;
+
+    private boolean rendered;
+    private StatusSignRender lastRender;
 
     public SteelStatusLobbySign(Location3D location, CommonArena arena) {
         super(location, arena);
@@ -56,34 +62,33 @@ public class SteelStatusLobbySign extends SteelLobbySign implements StatusLobbyS
 
     @Override
     public void update() {
+        Optional<Round> round = getArena().getRound();
+        StatusSignRender render = round.isPresent() ? ((SteelRound) round.get()).getStatusSignRender() : null;
+        if (rendered && render == lastRender) {
+            return; // nothing displayed on the sign has changed
+        }
+        if (!checkChunkLoaded()) {
+            return; // updated once the chunk loads
+        }
+        SteelMetrics.SIGN_UPDATES.increment();
         Block b = getBlock();
         if (!(b.getState() instanceof Sign)) {
             unregister();
             throw new IllegalStateException("Cannot update lobby sign: not a sign. Removing...");
         }
         final Sign sign = (Sign) b.getState();
-        sign.setLine(0, ARENA_COLOR + getArena().getName());
-        if (getArena().getRound().isPresent()) {
-            sign.setLine(1,
-                    LIFECYCLE_STAGE_COLOR + getArena().getRound().get().getLifecycleStage().getId().toUpperCase());
-            long seconds = getArena().getRound().get().getRemainingTime() != -1
-                    ? getArena().getRound().get().getRemainingTime()
-                    : getArena().getRound().get().getTime();
-            String time = seconds / 60 + ":" + (seconds % 60 >= 10 ? seconds % 60 : "0" + seconds % 60);
-            sign.setLine(2, TIMER_COLOR + time);
-            // get max player count
-            int maxPlayers = getArena().getRound().get().getConfigValue(ConfigNode.MAX_PLAYERS);
-            // format player count relative to max
-            String players = getArena().getRound().get().getChallengers().size() + "/"
-                    + (maxPlayers > 0 ? maxPlayers : "∞");
-            // add label to player count (shortened version used if the full one won't fit)
-            players += players.length() <= 5 ? " players" : (players.length() <= 7 ? " plyrs" : "");
-            sign.setLine(3, PLAYER_COUNT_COLOR + players);
+        if (render != null) {
+            for (int i = 0; i < 4; i++) {
+                sign.setLine(i, render.getLine(i));
+            }
         } else {
+            sign.setLine(0, ARENA_COLOR + getArena().getName());
             for (int i = 1; i < 4; i++) {
                 sign.setLine(i, "");
             }
         }
+        rendered = true;
+        lastRender = render;
         Bukkit.getScheduler().runTask(SteelMain.getInstance(), new Runnable() {
             public void run() {
                 sign.update(true);
@@ -120,6 +120,15 @@ public class WizardManager implements Component<SteelMinigame> {
         wizardPlayers.remove(uuid);
     }
 
+    /**
+     * Gets the number of players currently engaged in a wizard.
+     *
+     * @return The number of players currently engaged in a wizard
+     */
+    public int getSessionCount() {
+        return wizardPlayers.size();
+    }
+
     //               _,._
     //   .||,       /_ _\\
     //  \.`',/      |'L'| |
@@ -26,20 +26,23 @@ package net.caseif.flint.steel.minigame;
 import net.caseif.flint.arena.Arena;
 import net.caseif.flint.common.arena.CommonArena;
 import net.caseif.flint.common.minigame.CommonMinigame;
+import net.caseif.flint.config.ConfigNode;
 import net.caseif.flint.lobby.LobbySign;
 import net.caseif.flint.minigame.Minigame;
+import net.caseif.flint.round.Round;
 import net.caseif.flint.steel.SteelCore;
 import net.caseif.flint.steel.arena.SteelArena;
 import net.caseif.flint.steel.lobby.SteelLobbySign;
 import net.caseif.flint.steel.lobby.wizard.WizardManager;
+import net.caseif.flint.steel.round.SteelRound;
 import net.caseif.flint.steel.util.file.DataFiles;
+import net.caseif.flint.steel.util.helper.rollback.RollbackHelper;
 import net.caseif.flint.util.physical.Boundary;
 import net.caseif.flint.util.physical.Location3D;
 
 import com.google.common.base.Optional;
 import org.bukkit.Bukkit;
 import org.bukkit.World;
-import org.bukkit.block.Block;
 import org.bukkit.block.Sign;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.InvalidConfigurationException;
@@ -73,6 +76,8 @@ public class SteelMinigame extends CommonMinigame {
         DataFiles.createMinigameDataFiles(this);
         loadArenas();
         loadLobbySigns();
+        // restore arenas left mid-round by a crash before any rounds can be created in them
+        RollbackHelper.recoverRollbacks(this);
     }
 
     @Override
@@ -84,6 +89,15 @@ public class SteelMinigame extends CommonMinigame {
         return plugin;
     }
 
+    @Override
+    public <T> void setConfigValue(ConfigNode<T> node, T value) {
+        super.setConfigValue(node, value);
+        // rounds fall back to the minigame's values, so their snapshots may now be stale
+        for (Round round : getRoundMap().values()) {
+            ((SteelRound) round).invalidateConfig();
+        }
+    }
+
     @Override
     public Arena createArena(String id, String name, Location3D spawnPoint, Boundary boundary)
             throws IllegalArgumentException {
@@ -135,6 +149,9 @@ public class SteelMinigame extends CommonMinigame {
                     + "is not ideal and the round should be ended before the arena is requested for removal.");
         }
         getArenaMap().remove(arena.getId());
+        for (LobbySign sign : arena.getLobbySigns()) {
+            ((SteelLobbySign) sign).unindex();
+        }
         try {
             ((SteelArena) arena).removeFromStore();
         } catch (InvalidConfigurationException | IOException ex) {
@@ -206,16 +223,18 @@ public class SteelMinigame extends CommonMinigame {
                                     if (loc.getWorld().isPresent()) {
                                         World w = Bukkit.getWorld(loc.getWorld().get());
                                         if (w != null) {
-                                            Block block = w.getBlockAt(
-                                                    (int) Math.floor(loc.getX()),
-                                                    (int) Math.floor(loc.getY()),
-                                                    (int) Math.floor(loc.getZ())
-                                            );
-                                            if (block.getState() instanceof Sign) {
+                                            int x = (int) Math.floor(loc.getX());
+                                            int z = (int) Math.floor(loc.getZ());
+                                            // don't load the chunk just to verify the sign - it's checked on update
+                                            boolean loaded = w.isChunkLoaded(x >> 4, z >> 4);
+                                            if (!loaded || w.getBlockAt(x, (int) Math.floor(loc.getY()), z)
+                                                    .getState() instanceof Sign) {
                                                 try {
-                                                    LobbySign sign = SteelLobbySign.of(loc, (SteelArena) arena.get(),
+                                                    SteelLobbySign sign = SteelLobbySign.of(loc,
+                                                            (SteelArena) arena.get(),
                                                             arenaSection.getConfigurationSection(coordKey));
                                                     ((SteelArena) arena.get()).getLobbySignMap().put(loc, sign);
+                                                    sign.index();
                                                 } catch (IllegalArgumentException ex) {
                                                     SteelCore.logWarning("Found lobby sign in store with invalid "
                                                             + "configuration. Removing...");
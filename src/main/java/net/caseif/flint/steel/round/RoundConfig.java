@@ -0,0 +1,103 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016, Max Roncace <me@caseif.net>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.caseif.flint.steel.round;
+
+import net.caseif.flint.arena.SpawningMode;
+import net.caseif.flint.config.ConfigNode;
+import net.caseif.flint.steel.util.helper.CommandMatcher;
+
+/**
+ * Immutable snapshot of the {@link ConfigNode}s of a {@link SteelRound} which
+ * are read on hot paths, flattened into primitive fields.
+ *
+ * <p>Snapshots are discarded whenever a config value of the round or its
+ * minigame is changed and may safely be read from any thread.</p>
+ */
+public final class RoundConfig {
+
+    private final int maxPlayers;
+    private final SpawningMode spawningMode;
+    private final boolean allowDamage;
+    private final boolean allowFriendlyFire;
+    private final boolean allowExitBoundary;
+    private final boolean rollbackOnEnd;
+    private final boolean separateRoundChats;
+    private final boolean separateTeamChats;
+    private final boolean withholdSpectatorChat;
+    private final CommandMatcher forbiddenCommands;
+
+    RoundConfig(SteelRound round) {
+        this.maxPlayers = round.getConfigValue(ConfigNode.MAX_PLAYERS);
+        this.spawningMode = round.getConfigValue(ConfigNode.SPAWNING_MODE);
+        this.allowDamage = round.getConfigValue(ConfigNode.ALLOW_DAMAGE);
+        this.allowFriendlyFire = round.getConfigValue(ConfigNode.ALLOW_FRIENDLY_FIRE);
+        this.allowExitBoundary = round.getConfigValue(ConfigNode.ALLOW_EXIT_BOUNDARY);
+        this.rollbackOnEnd = round.getConfigValue(ConfigNode.ROLLBACK_ON_END);
+        this.separateRoundChats = round.getConfigValue(ConfigNode.SEPARATE_ROUND_CHATS);
+        this.separateTeamChats = round.getConfigValue(ConfigNode.SEPARATE_TEAM_CHATS);
+        this.withholdSpectatorChat = round.getConfigValue(ConfigNode.WITHHOLD_SPECTATOR_CHAT);
+        this.forbiddenCommands = new CommandMatcher(round.getConfigValue(ConfigNode.FORBIDDEN_COMMANDS));
+    }
+
+    public int getMaxPlayers() {
+        return maxPlayers;
+    }
+
+    public SpawningMode getSpawningMode() {
+        return spawningMode;
+    }
+
+    public boolean isDamageAllowed() {
+        return allowDamage;
+    }
+
+    public boolean isFriendlyFireAllowed() {
+        return allowFriendlyFire;
+    }
+
+    public boolean isExitBoundaryAllowed() {
+        return allowExitBoundary;
+    }
+
+    public boolean isRollbackOnEnd() {
+        return rollbackOnEnd;
+    }
+
+    public boolean isSeparateRoundChats() {
+        return separateRoundChats;
+    }
+
+    public boolean isSeparateTeamChats() {
+        return separateTeamChats;
+    }
+
+    public boolean isWithholdSpectatorChat() {
+        return withholdSpectatorChat;
+    }
+
+    public CommandMatcher getForbiddenCommands() {
+        return forbiddenCommands;
+    }
+
+}
@@ -0,0 +1,139 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016, Max Roncace <me@caseif.net>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.caseif.flint.steel.round;
+
+import net.caseif.flint.common.CommonCore;
+import net.caseif.flint.steel.SteelMain;
+import net.caseif.flint.steel.util.StaggeredRunner;
+import net.caseif.flint.steel.util.helper.LocationHelper;
+import net.caseif.flint.steel.util.helper.PlayerHelper;
+import net.caseif.flint.steel.util.helper.PlayerState;
+import net.caseif.flint.util.physical.Location3D;
+
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Restores the players of an ending {@link SteelRound} in bulk.
+ *
+ * <p>The stored states of all challengers are read up front. Players are
+ * returned from the arena immediately so that they are gone before it is
+ * rolled back, while the application of their stored states is spread across
+ * ticks as configured by {@code teardown-restores-per-tick}. The records of
+ * all restored players are purged in a single pass once the last state has
+ * been applied.</p>
+ */
+class RoundTeardown {
+
+    // players who have left the arena but still hold their round inventory
+    private static final Set<UUID> PENDING = new HashSet<>();
+
+    private final Map<UUID, PlayerState> states;
+    private final StaggeredRunner runner;
+    private final List<UUID> restored = new ArrayList<>();
+
+    RoundTeardown(Collection<UUID> uuids) {
+        this.states = PlayerHelper.loadStates(uuids);
+        this.runner = new StaggeredRunner(SteelMain.getInstance().getConfig().getInt("teardown-restores-per-tick"));
+    }
+
+    /**
+     * Gets the preloaded state of the player with the given {@link UUID}.
+     *
+     * @param uuid The {@link UUID} of the player to get the state of
+     * @return The player's stored {@link PlayerState}, or {@code null} if none
+     *     is stored
+     */
+    PlayerState getState(UUID uuid) {
+        return states.get(uuid);
+    }
+
+    /**
+     * Returns the given {@link Player} from the arena and queues the
+     * application of their stored state.
+     *
+     * @param player The {@link Player} to restore
+     * @param state The {@link PlayerState} to apply, or {@code null} if none
+     *     is stored
+     * @param returnLocation The location to return the player to
+     */
+    void queueRestore(final Player player, final PlayerState state, Location3D returnLocation) {
+        player.teleport(LocationHelper.convertLocation(returnLocation));
+        PENDING.add(player.getUniqueId());
+        runner.submit(new Runnable() {
+            @Override
+            public void run() {
+                PENDING.remove(player.getUniqueId());
+                // if the player has gone offline the record is kept and restored when they next join, and if
+                // they've since joined another round the record was already applied when their state was stored
+                if (!player.isOnline() || CommonCore.getChallenger(player.getUniqueId()).isPresent()) {
+                    return;
+                }
+                // a record which could not be read is kept so that it can still be restored later
+                if (state == null) {
+                    return;
+                }
+                state.apply(player);
+                PlayerHelper.releaseState(player.getUniqueId());
+                restored.add(player.getUniqueId());
+            }
+        });
+    }
+
+    /**
+     * Gets whether the player with the given {@link UUID} has been returned
+     * from an ending round but has not yet had their stored state applied.
+     *
+     * @param uuid The {@link UUID} of the player to check
+     * @return Whether the player's restore is pending
+     */
+    static boolean isRestorePending(UUID uuid) {
+        // players who joined another round had their stored state applied when the new one was stored
+        return PENDING.contains(uuid) && !CommonCore.getChallenger(uuid).isPresent();
+    }
+
+    /**
+     * Begins applying the queued restores.
+     *
+     * @param plugin The {@link Plugin} to schedule the restores under
+     */
+    void start(Plugin plugin) {
+        runner.submit(new Runnable() {
+            @Override
+            public void run() {
+                PlayerHelper.purgeReleasedStates(restored);
+            }
+        });
+        runner.start(plugin);
+    }
+
+}
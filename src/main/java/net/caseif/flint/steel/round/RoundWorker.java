@@ -25,16 +25,24 @@ package net.caseif.flint.steel.round;
 
 import net.caseif.flint.challenger.Challenger;
 import net.caseif.flint.common.event.round.CommonRoundTimerTickEvent;
-import net.caseif.flint.config.ConfigNode;
 import net.caseif.flint.lobby.LobbySign;
 import net.caseif.flint.round.Round;
+import net.caseif.flint.steel.SteelCore;
+import net.caseif.flint.steel.arena.SteelArena;
+import net.caseif.flint.steel.util.helper.EventHelper;
 import net.caseif.flint.steel.util.helper.LocationHelper;
+import net.caseif.flint.steel.util.metrics.SteelMetrics;
+import net.caseif.flint.steel.util.profiler.SteelProfiler;
 import net.caseif.flint.util.physical.Boundary;
 import net.caseif.flint.util.physical.Location3D;
+
+import com.google.common.eventbus.EventBus;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.entity.Player;
 
+import java.sql.SQLException;
+
 /**
  * Used as the {@link Runnable} for {@link Round} timers.
  *
@@ -49,12 +57,29 @@ public class RoundWorker implements Runnable {
     }
 
     public void run() {
+        long start = SteelMetrics.ROUND_TICK.start();
+        try {
+            tick();
+        } finally {
+            SteelMetrics.ROUND_TICK.stop(start);
+            SteelProfiler.recordTask("RoundWorker", start);
+        }
+    }
+
+    private void tick() {
         if (round.isTimerTicking()) {
             handleTick();
         }
         if (!round.isOrphaned()) {
             checkPlayerLocations();
 
+            try {
+                ((SteelArena) round.getArena()).getRollbackHelper().checkpointJournal();
+            } catch (SQLException ex) {
+                SteelCore.logSevere("Failed to checkpoint rollback journal for arena " + round.getArena().getId());
+                ex.printStackTrace();
+            }
+
             for (LobbySign sign : round.getArena().getLobbySigns()) {
                 if (sign.getType() == LobbySign.Type.STATUS) {
                     sign.update();
@@ -70,23 +95,30 @@ public class RoundWorker implements Runnable {
             if (round.getNextLifecycleStage().isPresent()) {
                 round.nextLifecycleStage();
             } else {
-                round.end(round.getConfigValue(ConfigNode.ROLLBACK_ON_END), true);
+                round.end(round.getConfig().isRollbackOnEnd(), true);
                 return;
             }
         } else {
             round.setTime(round.getTime() + 1, false);
         }
-        round.getArena().getMinigame().getEventBus().post(new CommonRoundTimerTickEvent(round, round.getTime() - 1,
-                stageSwitch ? 0 : round.getTime()));
+        EventBus bus = round.getArena().getMinigame().getEventBus();
+        if (EventHelper.hasSubscribers(bus, CommonRoundTimerTickEvent.class)) {
+            bus.post(new CommonRoundTimerTickEvent(round, round.getTime() - 1, stageSwitch ? 0 : round.getTime()));
+        } else {
+            SteelMetrics.EVENTS_SKIPPED.increment();
+        }
     }
 
     private void checkPlayerLocations() {
         Boundary bound = round.getArena().getBoundary();
         for (Challenger challenger : round.getChallengers()) {
+            if (round.isTeleportPending(challenger.getUniqueId())) {
+                continue; // the player hasn't been moved into the arena yet
+            }
             Player player = Bukkit.getPlayer(challenger.getUniqueId());
             Location3D loc = LocationHelper.convertLocation(player.getLocation());
             if (!bound.contains(loc)) {
-                if (round.getConfigValue(ConfigNode.ALLOW_EXIT_BOUNDARY)) {
+                if (round.getConfig().isExitBoundaryAllowed()) {
                     challenger.removeFromRound();
                 } else {
                     double x = loc.getX() > bound.getUpperBound().getX() ? bound.getUpperBound().getX()
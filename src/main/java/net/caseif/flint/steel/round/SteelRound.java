@@ -42,26 +42,36 @@ import net.caseif.flint.round.LifecycleStage;
 import net.caseif.flint.round.Round;
 import net.caseif.flint.steel.SteelCore;
 import net.caseif.flint.steel.arena.SteelArena;
+import net.caseif.flint.steel.challenger.SpectatorVisibility;
 import net.caseif.flint.steel.challenger.SteelChallenger;
+import net.caseif.flint.steel.lobby.type.StatusSignRender;
+import net.caseif.flint.steel.SteelMain;
 import net.caseif.flint.steel.minigame.SteelMinigame;
+import net.caseif.flint.steel.util.StaggeredRunner;
+import net.caseif.flint.steel.util.helper.EventHelper;
 import net.caseif.flint.steel.util.helper.LocationHelper;
 import net.caseif.flint.steel.util.helper.PlayerHelper;
+import net.caseif.flint.steel.util.helper.PlayerState;
+import net.caseif.flint.steel.util.helper.rollback.RollbackHelper;
+import net.caseif.flint.steel.util.helper.rollback.RollbackMaintenanceRunner;
+import net.caseif.flint.steel.util.metrics.SteelMetrics;
 import net.caseif.flint.util.physical.Location3D;
 
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
+import com.google.common.eventbus.EventBus;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
-import org.bukkit.configuration.InvalidConfigurationException;
 import org.bukkit.entity.Player;
 
 import java.io.IOException;
 import java.sql.SQLException;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -77,6 +87,15 @@ public class SteelRound extends CommonRound {
     private final int schedulerHandle;
     private boolean timerTicking = true;
 
+    private StatusSignRender statusSignRender;
+    private String[] challengerNames;
+
+    private final Set<UUID> pendingTeleports = new HashSet<>();
+    private StaggeredRunner joinTeleports;
+    private RoundTeardown teardown;
+
+    private volatile RoundConfig config;
+
     public SteelRound(CommonArena arena, ImmutableSet<LifecycleStage> stages) {
         super(arena, stages);
         schedulerHandle = Bukkit.getScheduler().scheduleSyncRepeatingTask(
@@ -85,11 +104,14 @@ public class SteelRound extends CommonRound {
                 0L,
                 20L
         );
-        try {
-            ((SteelArena) getArena()).getRollbackHelper().createRollbackDatabase();
-        } catch (IOException | SQLException ex) {
-            SteelCore.logSevere("Failed to create rollback store");
-            ex.printStackTrace();
+        // if the store is being compacted, it's created once compaction finishes instead
+        if (!RollbackMaintenanceRunner.isCompacting(getArena().getMinigame())) {
+            try {
+                ((SteelArena) getArena()).getRollbackHelper().createRollbackDatabase();
+            } catch (IOException | SQLException ex) {
+                SteelCore.logSevere("Failed to create rollback store");
+                ex.printStackTrace();
+            }
         }
     }
 
@@ -103,7 +125,7 @@ public class SteelRound extends CommonRound {
             return new CommonJoinResult(JoinResult.Status.PLAYER_OFFLINE);
         }
 
-        if (getChallengers().size() >= getConfigValue(ConfigNode.MAX_PLAYERS)) {
+        if (getChallengerCount() >= getConfig().getMaxPlayers()) {
             return new CommonJoinResult(JoinResult.Status.ROUND_FULL);
         }
 
@@ -116,103 +138,270 @@ public class SteelRound extends CommonRound {
         SteelChallenger challenger = new SteelChallenger(uuid, this);
 
         try {
-            PlayerHelper.storeLocation(bukkitPlayer);
-        } catch (IllegalArgumentException | InvalidConfigurationException | IOException ex) {
+            PlayerHelper.storeState(bukkitPlayer);
+        } catch (IOException ex) {
             return new CommonJoinResult(ex);
         }
 
-
         bukkitPlayer.teleport(spawn);
 
         getChallengerMap().put(uuid, challenger);
+        challengerNames = null;
 
         for (LobbySign sign : getArena().getLobbySigns()) {
             sign.update();
         }
 
-        try {
-            PlayerHelper.pushInventory(bukkitPlayer);
-        } catch (IOException ex) {
-            return new CommonJoinResult(ex);
+        EventBus bus = getArena().getMinigame().getEventBus();
+        if (EventHelper.hasSubscribers(bus, CommonChallengerJoinRoundEvent.class)) {
+            bus.post(new CommonChallengerJoinRoundEvent(challenger));
+        } else {
+            SteelMetrics.EVENTS_SKIPPED.increment();
         }
-
-        getArena().getMinigame().getEventBus().post(new CommonChallengerJoinRoundEvent(challenger));
         return new CommonJoinResult(challenger);
     }
 
+    /**
+     * Adds the players with the given {@link UUID}s to this {@link SteelRound}
+     * in a single operation.
+     *
+     * <p>Capacity is validated once for the whole batch, player state is
+     * persisted in a single pass and lobby signs are refreshed once. Players
+     * are registered as challengers immediately, but their teleports to the
+     * arena are spread across ticks as configured by
+     * {@code join-teleports-per-tick}.</p>
+     *
+     * @param uuids The {@link UUID}s of the players to add
+     * @return The {@link JoinResult} for each player, keyed by {@link UUID} in
+     *     the order given
+     * @throws IllegalStateException If this object is orphaned
+     * @throws OrphanedComponentException If this object is orphaned
+     */
+    @SuppressWarnings("DuplicateThrows")
+    public Map<UUID, JoinResult> addChallengers(Collection<UUID> uuids)
+            throws IllegalStateException, OrphanedComponentException {
+        checkState();
+
+        Map<UUID, JoinResult> results = new LinkedHashMap<>();
+        List<Player> accepted = new ArrayList<>();
+        int slots = getConfig().getMaxPlayers() - getChallengerCount();
+        for (UUID uuid : uuids) {
+            if (results.containsKey(uuid)) {
+                continue;
+            }
+            Player bukkitPlayer = Bukkit.getPlayer(uuid);
+            if (bukkitPlayer == null) {
+                results.put(uuid, new CommonJoinResult(JoinResult.Status.PLAYER_OFFLINE));
+            } else if (CommonCore.getChallenger(uuid).isPresent()) {
+                results.put(uuid, new CommonJoinResult(JoinResult.Status.ALREADY_IN_ROUND));
+            } else if (accepted.size() >= slots) {
+                results.put(uuid, new CommonJoinResult(JoinResult.Status.ROUND_FULL));
+            } else {
+                results.put(uuid, null); // reserve the player's position in the result map
+                accepted.add(bukkitPlayer);
+            }
+        }
+
+        if (accepted.isEmpty()) {
+            return results;
+        }
+
+        Map<UUID, IOException> failures = PlayerHelper.storeStates(accepted);
+
+        if (joinTeleports == null) {
+            joinTeleports = new StaggeredRunner(SteelMain.getInstance().getConfig().getInt("join-teleports-per-tick"));
+        }
+        List<SteelChallenger> joined = new ArrayList<>();
+        for (final Player bukkitPlayer : accepted) {
+            final UUID uuid = bukkitPlayer.getUniqueId();
+            if (failures.containsKey(uuid)) {
+                results.put(uuid, new CommonJoinResult(failures.get(uuid)));
+                continue;
+            }
+
+            final Location spawn = LocationHelper.convertLocation(nextSpawnPoint());
+            SteelChallenger challenger = new SteelChallenger(uuid, this);
+            getChallengerMap().put(uuid, challenger);
+            pendingTeleports.add(uuid);
+            joinTeleports.submit(new Runnable() {
+                @Override
+                public void run() {
+                    // the player may have left the round before their turn came up
+                    if (pendingTeleports.remove(uuid) && bukkitPlayer.isOnline()) {
+                        bukkitPlayer.teleport(spawn);
+                    }
+                }
+            });
+
+            joined.add(challenger);
+            results.put(uuid, new CommonJoinResult(challenger));
+        }
+
+        if (!joined.isEmpty()) {
+            challengerNames = null;
+            joinTeleports.start(((SteelMinigame) getArena().getMinigame()).getBukkitPlugin());
+
+            for (LobbySign sign : getArena().getLobbySigns()) {
+                sign.update();
+            }
+
+            EventBus bus = getArena().getMinigame().getEventBus();
+            if (EventHelper.hasSubscribers(bus, CommonChallengerJoinRoundEvent.class)) {
+                for (SteelChallenger challenger : joined) {
+                    bus.post(new CommonChallengerJoinRoundEvent(challenger));
+                }
+            } else {
+                SteelMetrics.EVENTS_SKIPPED.add(joined.size());
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Gets whether the challenger with the given {@link UUID} joined this
+     * round through {@link SteelRound#addChallengers(Collection)} and has not
+     * yet been teleported into the arena.
+     *
+     * @param uuid The {@link UUID} of the challenger to check
+     * @return Whether the challenger is awaiting their teleport
+     */
+    public boolean isTeleportPending(UUID uuid) {
+        return pendingTeleports.contains(uuid);
+    }
+
+    /**
+     * Gets whether the player with the given {@link UUID} has been returned
+     * from an ending round but is still holding their round inventory while
+     * awaiting the application of their stored state.
+     *
+     * @param uuid The {@link UUID} of the player to check
+     * @return Whether the player's restore is pending
+     */
+    public static boolean isRestorePending(UUID uuid) {
+        return RoundTeardown.isRestorePending(uuid);
+    }
+
     @Override // overridden from CommonRound
     public void removeChallenger(Challenger challenger, boolean isDisconnecting, boolean updateSigns)
             throws OrphanedComponentException {
+        // the superclass updates lobby signs, so the names must be rebuilt by then
+        challengerNames = null;
+        pendingTeleports.remove(challenger.getUniqueId());
         super.removeChallenger(challenger, isDisconnecting, updateSigns);
 
         Player bukkitPlayer = Bukkit.getPlayer(challenger.getUniqueId());
-        Location3D returnPoint;
-        try {
-            returnPoint = PlayerHelper.getReturnLocation(bukkitPlayer);
-        } catch (InvalidConfigurationException | IOException ex) {
-            ex.printStackTrace();
-            returnPoint = LocationHelper.convertLocation(Bukkit.getWorlds().get(0).getSpawnLocation());
-        }
-
-        if (!isDisconnecting) {
+        // no-op unless the challenger was hidden as a spectator
+        SpectatorVisibility.show(bukkitPlayer);
+        PlayerState state = null;
+        if (teardown != null) {
+            state = teardown.getState(challenger.getUniqueId());
+        } else {
             try {
-                PlayerHelper.popInventory(bukkitPlayer);
-            } catch (InvalidConfigurationException | IOException ex) {
+                state = PlayerHelper.loadState(challenger.getUniqueId()).orNull();
+            } catch (IOException ex) {
                 // don't actually throw the exception so it doesn't ruin everything
-                new RuntimeException("Could not pop inventory for player " + bukkitPlayer.getName()
+                new RuntimeException("Could not load state of player " + bukkitPlayer.getName()
                         + " from persistent storage", ex).printStackTrace();
             }
         }
+        if (state == null) {
+            if (PlayerHelper.hasStoredState(challenger.getUniqueId())) {
+                // the record is kept so the state can be restored when the player next joins the server
+                SteelCore.logSevere("Stored state of player " + bukkitPlayer.getName() + " could not be read - "
+                        + "defaulting to world spawn and leaving the record in place");
+            } else {
+                SteelCore.logSevere("State of player " + bukkitPlayer.getName() + " is not present in persistent "
+                        + "storage - defaulting to world spawn");
+            }
+        }
+        Location3D returnPoint = state != null && state.getReturnLocation() != null
+                ? state.getReturnLocation()
+                : LocationHelper.convertLocation(Bukkit.getWorlds().get(0).getSpawnLocation());
+
+        if (!isDisconnecting && state != null && teardown == null) {
+            state.apply(bukkitPlayer);
+        }
 
-        CommonChallengerLeaveRoundEvent event = new CommonChallengerLeaveRoundEvent(challenger, returnPoint);
-        getArena().getMinigame().getEventBus().post(event);
+        Location3D returnLocation = returnPoint;
+        EventBus bus = getArena().getMinigame().getEventBus();
+        if (EventHelper.hasSubscribers(bus, CommonChallengerLeaveRoundEvent.class)) {
+            CommonChallengerLeaveRoundEvent event = new CommonChallengerLeaveRoundEvent(challenger, returnPoint);
+            bus.post(event);
+            returnLocation = event.getReturnLocation();
+        } else {
+            SteelMetrics.EVENTS_SKIPPED.increment();
+        }
 
         if (!challenger.getRound().isEnding()) {
             ((CommonChallenger) challenger).orphan();
         }
 
-        if (!event.getReturnLocation().equals(returnPoint)) {
-            try {
-                PlayerHelper.storeLocation(bukkitPlayer, event.getReturnLocation());
-            } catch (InvalidConfigurationException | IOException ex) {
-                ex.printStackTrace();
+        if (isDisconnecting) {
+            // the state is restored when the player next joins the server
+            if (state != null && !returnLocation.equals(returnPoint)) {
+                try {
+                    PlayerHelper.saveState(challenger.getUniqueId(), state.withReturnLocation(returnLocation));
+                } catch (IOException ex) {
+                    ex.printStackTrace();
+                }
             }
-        }
-        if (!isDisconnecting) {
-            try {
-                PlayerHelper.popLocation(bukkitPlayer);
-            } catch (IllegalArgumentException | InvalidConfigurationException | IOException ex) {
-                SteelCore.logSevere("Could not pop location for player " + bukkitPlayer.getName()
-                        + " from persistent storage - defaulting to world spawn");
-                ex.printStackTrace();
-                bukkitPlayer.teleport(Bukkit.getWorlds().get(0).getSpawnLocation());
+        } else if (teardown != null) {
+            teardown.queueRestore(bukkitPlayer, state, returnLocation);
+        } else {
+            bukkitPlayer.teleport(LocationHelper.convertLocation(returnLocation));
+            if (state != null) {
+                PlayerHelper.deleteState(challenger.getUniqueId());
             }
         }
     }
 
     @Override
     public Location3D nextSpawnPoint() {
-        if (getConfigValue(ConfigNode.SPAWNING_MODE) == SpawningMode.PROXIMITY_HIGH) {
-            List<Location3D> candidates = new ArrayList<>();
-            double greatestMean = 0;
+        if (getConfig().getSpawningMode() == SpawningMode.PROXIMITY_HIGH) {
+            // snapshot the positions of challengers in the arena's world so scoring doesn't touch Bukkit
+            int count = 0;
+            double[] xs = new double[getChallengerMap().size()];
+            double[] ys = new double[xs.length];
+            double[] zs = new double[xs.length];
+            Location buffer = new Location(null, 0, 0, 0);
+            for (UUID uuid : getChallengerMap().keySet()) {
+                Player player = Bukkit.getPlayer(uuid);
+                if (player == null || pendingTeleports.contains(uuid)
+                        || !player.getWorld().getName().equals(getArena().getWorld())) {
+                    continue;
+                }
+                player.getLocation(buffer);
+                xs[count] = buffer.getX();
+                ys[count] = buffer.getY();
+                zs[count] = buffer.getZ();
+                count++;
+            }
 
-            if (getChallengers().size() == 0) {
+            if (count == 0) {
                 // just select a random spawn point
                 return getArena().getSpawnPoints()
                         .get((int) Math.floor(Math.random() * getArena().getSpawnPoints().size()));
             }
 
+            // maximize the summed squared distance, which avoids a square root per pair
+            List<Location3D> candidates = new ArrayList<>();
+            double greatestScore = -1;
             for (Location3D loc : getArena().getSpawnPoints().values()) {
-                Location bukkitLoc = LocationHelper.convertLocation(loc);
-                int sum = 0;
-                for (Challenger ch : getChallengers()) {
-                    sum += Bukkit.getPlayer(ch.getUniqueId()).getLocation().distance(bukkitLoc);
+                double x = loc.getX();
+                double y = loc.getY();
+                double z = loc.getZ();
+                double score = 0;
+                for (int i = 0; i < count; i++) {
+                    double dx = xs[i] - x;
+                    double dy = ys[i] - y;
+                    double dz = zs[i] - z;
+                    score += dx * dx + dy * dy + dz * dz;
                 }
-                double mean = sum / getChallengers().size();
-                if (mean > greatestMean) {
-                    candidates = Collections.singletonList(loc);
-                    greatestMean = mean;
-                } else if (mean == greatestMean) {
+                if (score > greatestScore) {
+                    candidates.clear();
+                    candidates.add(loc);
+                    greatestScore = score;
+                } else if (score == greatestScore) {
                     candidates.add(loc);
                 }
             }
@@ -243,13 +432,113 @@ public class SteelRound extends CommonRound {
     public void end(boolean rollback, boolean natural) throws IllegalStateException, OrphanedComponentException {
         checkState();
         cancelTimerTask();
-        super.end(rollback, natural);
+        if (joinTeleports != null) {
+            joinTeleports.cancel();
+        }
+        pendingTeleports.clear();
+        // the superclass removes each challenger in turn, so restores are batched through the teardown
+        teardown = new RoundTeardown(getChallengerMap().keySet());
+        try {
+            super.end(rollback, natural);
+        } finally {
+            teardown.start(((SteelMinigame) getArena().getMinigame()).getBukkitPlugin());
+            teardown = null;
+        }
+        RollbackHelper rbHelper = ((SteelArena) getArena()).getRollbackHelper();
+        try {
+            if (!rollback) {
+                // the changes are being kept, so their records would otherwise linger until the next rollback
+                rbHelper.discardJournal();
+            }
+        } catch (SQLException ex) {
+            SteelCore.logSevere("Failed to discard rollback journal for arena " + getArena().getId());
+            ex.printStackTrace();
+        } finally {
+            try {
+                rbHelper.closeStore();
+            } catch (SQLException ex) {
+                SteelCore.logWarning("Failed to close rollback store for arena " + getArena().getId());
+                ex.printStackTrace();
+            }
+        }
+        ((SteelArena) getArena()).getChunkResidency().release();
         for (LobbySign ls : getArena().getLobbySigns()) {
             ls.update();
         }
         this.orphan();
     }
 
+    /**
+     * Gets the number of challengers in this {@link SteelRound} without
+     * copying the challenger list.
+     *
+     * @return The number of challengers in this {@link SteelRound}
+     */
+    public int getChallengerCount() {
+        return getChallengerMap().size();
+    }
+
+    /**
+     * Gets the names of the challengers in this {@link SteelRound}, in the
+     * same order as {@link SteelRound#getChallengers()}.
+     *
+     * <p>The returned array is cached until a challenger joins or leaves and
+     * must not be modified.</p>
+     *
+     * @return The names of the challengers in this {@link SteelRound}
+     */
+    public String[] getChallengerNames() {
+        if (challengerNames == null) {
+            String[] names = new String[getChallengerMap().size()];
+            int i = 0;
+            for (Challenger challenger : getChallengerMap().values()) {
+                names[i++] = challenger.getName();
+            }
+            challengerNames = names;
+        }
+        return challengerNames;
+    }
+
+    @Override
+    public <T> void setConfigValue(ConfigNode<T> node, T value) {
+        super.setConfigValue(node, value);
+        invalidateConfig();
+    }
+
+    /**
+     * Gets a snapshot of the config values of this {@link SteelRound} read on
+     * hot paths, building it if a value has changed since it was last built.
+     *
+     * @return The current {@link RoundConfig} for this round
+     */
+    public RoundConfig getConfig() {
+        RoundConfig snapshot = config;
+        if (snapshot == null) {
+            snapshot = new RoundConfig(this);
+            config = snapshot;
+        }
+        return snapshot;
+    }
+
+    /**
+     * Discards the config snapshot of this {@link SteelRound}, causing it to
+     * be rebuilt on next access.
+     */
+    public void invalidateConfig() {
+        config = null;
+    }
+
+    /**
+     * Gets the render shared by the status lobby signs of this round's arena,
+     * rebuilding it only if a displayed value has changed.
+     *
+     * @return The current {@link StatusSignRender} for this round
+     */
+    public StatusSignRender getStatusSignRender() {
+        statusSignRender = StatusSignRender.refresh(statusSignRender, this);
+        return statusSignRender;
+    }
+
     @Override
     public void broadcast(String message) {
         checkState();
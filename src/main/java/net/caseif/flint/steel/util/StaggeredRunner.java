@@ -0,0 +1,125 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016, Max Roncace <me@caseif.net>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.caseif.flint.steel.util;
+
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+/**
+ * Runner class which spreads queued work across ticks, executing at most a
+ * fixed number of queued {@link Runnable}s per tick.
+ *
+ * <p>This runner must only be used from the main thread.</p>
+ */
+public class StaggeredRunner implements Runnable {
+
+    private final Queue<Runnable> queue = new ArrayDeque<>();
+    private final int perTick;
+
+    private BukkitTask task;
+
+    /**
+     * Creates a new {@link StaggeredRunner}.
+     *
+     * @param perTick The maximum number of queued {@link Runnable}s to execute
+     *     per tick
+     */
+    public StaggeredRunner(int perTick) {
+        this.perTick = Math.max(perTick, 1);
+    }
+
+    /**
+     * Queues the given {@link Runnable} for execution.
+     *
+     * @param runnable The {@link Runnable} to queue
+     */
+    public void submit(Runnable runnable) {
+        queue.add(runnable);
+    }
+
+    /**
+     * Executes the first batch of queued work immediately and schedules the
+     * remainder across the following ticks. If the given plugin is being
+     * disabled, all queued work is executed immediately instead.
+     *
+     * @param plugin The {@link Plugin} to schedule the work under
+     */
+    public void start(Plugin plugin) {
+        if (!plugin.isEnabled()) {
+            // tasks can't be scheduled for a disabled plugin
+            flush();
+            return;
+        }
+        run();
+        if (!queue.isEmpty() && task == null) {
+            task = Bukkit.getScheduler().runTaskTimer(plugin, this, 1L, 1L);
+        }
+    }
+
+    /**
+     * Executes all remaining queued work immediately.
+     */
+    public void flush() {
+        while (!queue.isEmpty()) {
+            queue.poll().run();
+        }
+        cancel();
+    }
+
+    /**
+     * Discards all remaining queued work.
+     */
+    public void cancel() {
+        queue.clear();
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    /**
+     * Gets whether any queued work remains.
+     *
+     * @return Whether any queued work remains
+     */
+    public boolean isPending() {
+        return !queue.isEmpty();
+    }
+
+    @Override
+    public void run() {
+        for (int i = 0; i < perTick && !queue.isEmpty(); i++) {
+            queue.poll().run();
+        }
+        if (queue.isEmpty() && task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+}
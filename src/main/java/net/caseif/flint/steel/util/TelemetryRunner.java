@@ -28,15 +28,27 @@ import net.caseif.flint.steel.SteelMain;
 import net.caseif.flint.steel.util.file.DataFiles;
 import net.caseif.jtelemetry.JTelemetry;
 
+import org.bukkit.Bukkit;
+
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Runner class for telemetry data submission.
+ *
+ * <p>This runner is invoked on the main thread, where it only collects the
+ * data to be submitted. Reading the server UUID and submitting the data are
+ * carried out asynchronously, and failed submissions are retried with
+ * exponential backoff.</p>
  */
 public class TelemetryRunner implements Runnable {
 
@@ -47,24 +59,24 @@ public class TelemetryRunner implements Runnable {
     private static final String KEY_MINIGAME_COUNT = "mgCount";
     private static final String KEY_MINIGAMES = "minigames";
 
-    private static final String TELEMETRY_SERVER = "http://telemetry.caseif.net/steel.php";
+    private static final String CONFIG_URL_KEY = "telemetry-url";
+    private static final String CONFIG_TIMEOUT_KEY = "telemetry-timeout";
+
+    private static final String DEFAULT_TELEMETRY_SERVER = "http://telemetry.caseif.net/steel.php";
+    private static final int DEFAULT_TIMEOUT = 10;
 
-    private final JTelemetry jt = new JTelemetry(TELEMETRY_SERVER);
+    private static final long TICKS_PER_SECOND = 20L;
+    private static final int MAX_ATTEMPTS = 5;
+    private static final long INITIAL_BACKOFF_TICKS = 60 * TICKS_PER_SECOND;
+
+    private static volatile UUID uuid;
 
     @Override
     public void run() {
-        JTelemetry.Payload payload = jt.createPayload();
-
-        UUID uuid;
-        try {
-            uuid = getUuid();
-        } catch (IOException ex) {
-            SteelCore.logSevere("Encountered IOException while getting telemetry UUID - not submitting data");
-            ex.printStackTrace();
-            return;
-        }
+        String url = SteelMain.getInstance().getConfig().getString(CONFIG_URL_KEY, DEFAULT_TELEMETRY_SERVER);
+        long timeout = SteelMain.getInstance().getConfig().getInt(CONFIG_TIMEOUT_KEY, DEFAULT_TIMEOUT);
 
-        payload.addData(KEY_UUID, uuid.toString());
+        JTelemetry.Payload payload = new JTelemetry(url).createPayload();
         payload.addData(KEY_VERSION, SteelMain.getInstance().getDescription().getVersion());
         payload.addData(KEY_API_LEVEL, SteelCore.getApiRevision());
         payload.addData(KEY_JAVA_VERSION, System.getProperty("java.version"));
@@ -78,39 +90,102 @@ public class TelemetryRunner implements Runnable {
         }
         payload.addData(KEY_MINIGAMES, plugins);
 
-        try {
-            JTelemetry.HttpResponse response = payload.submit();
-            if (response.getStatusCode() / 100 != 2) { // not 2xx response code
-                SteelCore.logWarning("Telemetry server responded with non-success status code ("
-                        + response.getStatusCode() + " " + response.getMessage() + "). Please report this.");
+        Bukkit.getScheduler().runTaskAsynchronously(SteelMain.getInstance(), new Submission(payload, timeout));
+    }
+
+    private static class Submission implements Runnable {
+
+        private final JTelemetry.Payload payload;
+        private final long timeout;
+
+        private int attempt;
+
+        private Submission(JTelemetry.Payload payload, long timeout) {
+            this.payload = payload;
+            this.timeout = timeout;
+        }
+
+        @Override
+        public void run() {
+            if (attempt == 0) {
+                try {
+                    payload.addData(KEY_UUID, getUuid().toString());
+                } catch (IOException ex) {
+                    SteelCore.logSevere("Encountered IOException while getting telemetry UUID - not submitting data");
+                    ex.printStackTrace();
+                    return;
+                }
+            }
+            attempt++;
+
+            FutureTask<JTelemetry.HttpResponse> task = new FutureTask<>(new Callable<JTelemetry.HttpResponse>() {
+                @Override
+                public JTelemetry.HttpResponse call() throws IOException {
+                    return payload.submit();
+                }
+            });
+            // the connection can't be given a timeout directly, so it's made on a thread which can be abandoned
+            Thread thread = new Thread(task, "Steel Telemetry Submission");
+            thread.setDaemon(true);
+            thread.start();
+
+            try {
+                JTelemetry.HttpResponse response = task.get(timeout, TimeUnit.SECONDS);
+                if (response.getStatusCode() / 100 == 5) { // server error - may be transient
+                    retry("Telemetry server responded with status code " + response.getStatusCode());
+                } else if (response.getStatusCode() / 100 != 2) { // not 2xx response code
+                    SteelCore.logWarning("Telemetry server responded with non-success status code ("
+                            + response.getStatusCode() + " " + response.getMessage() + "). Please report this.");
+                }
+            } catch (TimeoutException ex) {
+                task.cancel(true);
+                retry("Telemetry submission timed out after " + timeout + " seconds");
+            } catch (ExecutionException ex) {
+                retry("Encountered " + ex.getCause().getClass().getSimpleName()
+                        + " while submitting telemetry data to remote server");
+            } catch (InterruptedException ex) {
+                task.cancel(true);
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void retry(String reason) {
+            if (attempt >= MAX_ATTEMPTS || !SteelMain.getInstance().isEnabled()) {
+                SteelCore.logVerbose(reason + " - giving up");
+                return;
             }
-        } catch (IOException ex) {
-            SteelCore.logSevere("Encountered IOException while submitting telemetry data to remote server");
-            ex.printStackTrace();
+            long delay = INITIAL_BACKOFF_TICKS << (attempt - 1);
+            SteelCore.logVerbose(reason + " - retrying in " + delay / TICKS_PER_SECOND + " seconds");
+            Bukkit.getScheduler().runTaskLaterAsynchronously(SteelMain.getInstance(), this, delay);
         }
+
     }
 
-    private static UUID getUuid() throws IOException {
+    private static synchronized UUID getUuid() throws IOException {
+        if (uuid != null) {
+            return uuid;
+        }
         File uuidFile = DataFiles.TELEMETRY_UUID_STORE.getFile();
         if (!uuidFile.exists()) {
             //noinspection ResultOfMethodCallIgnored
             uuidFile.createNewFile();
         }
         try (BufferedReader reader = new BufferedReader(new FileReader(uuidFile))) {
-            String uuid = reader.readLine();
+            String line = reader.readLine();
             try {
-                if (uuid == null) {
+                if (line == null) {
                     throw new IllegalArgumentException();
                 }
-                return UUID.fromString(uuid);
+                uuid = UUID.fromString(line);
             } catch (IllegalArgumentException ex) {
                 UUID newUuid = UUID.randomUUID();
                 try (FileWriter writer = new FileWriter(uuidFile)) {
                     writer.write(newUuid.toString());
                 }
-                return newUuid;
+                uuid = newUuid;
             }
         }
+        return uuid;
     }
 
 }
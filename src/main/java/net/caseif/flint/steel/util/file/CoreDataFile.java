@@ -35,6 +35,10 @@ import java.io.File;
  */
 public class CoreDataFile extends DataFile {
 
+    public CoreDataFile(String fileName, boolean isDirectory, boolean created) {
+        super(fileName, isDirectory, created);
+    }
+
     public CoreDataFile(String fileName, boolean isDirectory) {
         super(fileName, isDirectory);
     }
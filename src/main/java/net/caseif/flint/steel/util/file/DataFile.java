@@ -32,6 +32,7 @@ public abstract class DataFile {
 
     private String fileName;
     private boolean directory;
+    private boolean created;
 
     /**
      * Constructs a new {@link DataFile}.
@@ -39,13 +40,27 @@ public abstract class DataFile {
      * @param fileName The name of the file backing the new
      *     {@link DataFile}
      * @param isDirectory Whether this {@link DataFile} is a directory
+     * @param created Whether this {@link DataFile} should be created if it
+     *     does not exist
      */
-    public DataFile(String fileName, boolean isDirectory) {
+    public DataFile(String fileName, boolean isDirectory, boolean created) {
         this.fileName = fileName;
         this.directory = isDirectory;
+        this.created = created;
         DataFiles.register(this);
     }
 
+    /**
+     * Constructs a new {@link DataFile}.
+     *
+     * @param fileName The name of the file backing the new
+     *     {@link DataFile}
+     * @param isDirectory Whether this {@link DataFile} is a directory
+     */
+    public DataFile(String fileName, boolean isDirectory) {
+        this(fileName, isDirectory, true);
+    }
+
     /**
      * Constructs a new {@link DataFile}.
      *
@@ -65,6 +80,17 @@ public abstract class DataFile {
         return directory;
     }
 
+    /**
+     * Returns whether this {@link DataFile} should be created if it does not
+     * exist.
+     *
+     * @return Whether this {@link DataFile} should be created if it does not
+     *     exist
+     */
+    public boolean isCreated() {
+        return created;
+    }
+
     /**
      * Returns the internal name of this {@link CoreDataFile}.
      *
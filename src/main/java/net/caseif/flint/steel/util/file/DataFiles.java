@@ -40,10 +40,15 @@ public class DataFiles {
 
     static final String ROOT_DATA_DIR = "flint_data";
 
-    public static final CoreDataFile OFFLINE_PLAYER_STORE = new CoreDataFile("offline_players.yml");
-    public static final CoreDataFile PLAYER_INVENTORY_DIR = new CoreDataFile("inventories", true);
-    public static final CoreDataFile PLAYER_LOCATION_STORE = new CoreDataFile("locs.yml");
+    public static final CoreDataFile PLAYER_STATE_DIR = new CoreDataFile("player_states", true);
+    // superseded by PLAYER_STATE_DIR and only read to migrate (or deleted) on startup
+    public static final CoreDataFile LEGACY_PLAYER_INVENTORY_DIR = new CoreDataFile("inventories", true, false);
+    public static final CoreDataFile LEGACY_PLAYER_LOCATION_STORE = new CoreDataFile("locs.yml", false, false);
+    public static final CoreDataFile LEGACY_OFFLINE_PLAYER_STORE = new CoreDataFile("offline_players.yml", false,
+            false);
     public static final CoreDataFile TELEMETRY_UUID_STORE = new CoreDataFile("uuid.txt");
+    // written by the exporter only when export is enabled
+    public static final CoreDataFile METRICS_EXPORT = new CoreDataFile("metrics.json", false, false);
 
     public static final MinigameDataFile ARENA_STORE = new MinigameDataFile("arenas.yml");
     public static final MinigameDataFile LOBBY_STORE = new MinigameDataFile("lobbies.yml");
@@ -70,6 +75,9 @@ public class DataFiles {
      */
     public static void createMinigameDataFiles(Minigame minigame) {
         for (DataFile df : FILES) {
+            if (!df.isCreated()) {
+                continue;
+            }
             if ((minigame != null && df instanceof MinigameDataFile)
                     || (minigame == null && df instanceof CoreDataFile)) {
                 File file = minigame != null
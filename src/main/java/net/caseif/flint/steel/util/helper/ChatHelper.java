@@ -24,8 +24,8 @@
 package net.caseif.flint.steel.util.helper;
 
 import net.caseif.flint.challenger.Challenger;
-import net.caseif.flint.config.ConfigNode;
 import net.caseif.flint.steel.SteelCore;
+import net.caseif.flint.steel.round.SteelRound;
 
 import com.google.common.base.Optional;
 import org.bukkit.entity.Player;
@@ -56,7 +56,7 @@ public class ChatHelper {
     }
 
     private static boolean checkRoundBarrier(Optional<Challenger> ch) {
-        return ch.isPresent() && ch.get().getRound().getConfigValue(ConfigNode.SEPARATE_ROUND_CHATS);
+        return ch.isPresent() && ((SteelRound) ch.get().getRound()).getConfig().isSeparateRoundChats();
     }
 
     public static boolean isTeamBarrierPresent(Player sender, Player recipient) {
@@ -65,7 +65,7 @@ public class ChatHelper {
 
         if (senderCh.isPresent() && recipCh.isPresent()) {
             if (senderCh.get().getRound() == recipCh.get().getRound()) {
-                if (senderCh.get().getRound().getConfigValue(ConfigNode.SEPARATE_TEAM_CHATS)) {
+                if (((SteelRound) senderCh.get().getRound()).getConfig().isSeparateTeamChats()) {
                     return true;
                 }
             }
@@ -79,7 +79,7 @@ public class ChatHelper {
 
         if (senderCh.isPresent()) {
             if (senderCh.get().isSpectating()
-                    && senderCh.get().getRound().getConfigValue(ConfigNode.WITHHOLD_SPECTATOR_CHAT)) {
+                    && ((SteelRound) senderCh.get().getRound()).getConfig().isWithholdSpectatorChat()) {
                 return !(recipCh.isPresent() && recipCh.get().getRound() == senderCh.get().getRound()
                         && recipCh.get().isSpectating());
             }
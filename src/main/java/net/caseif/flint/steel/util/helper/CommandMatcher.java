@@ -0,0 +1,145 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016, Max Roncace <me@caseif.net>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.caseif.flint.steel.util.helper;
+
+import net.caseif.flint.steel.SteelCore;
+
+import org.bukkit.Bukkit;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandMap;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.Collection;
+
+/**
+ * Matches issued commands against a list of commands.
+ *
+ * <p>Each command is reduced to its lowercase root label, which is resolved
+ * through the server's command map so that aliases and namespaced labels
+ * (e.g. {@code /minecraft:kill}) match the command they refer to. Entries
+ * without arguments match any invocation of their command, while entries with
+ * arguments only match invocations with the same arguments.</p>
+ *
+ * <p>Labels are resolved at match time, so commands registered after the
+ * matcher was created and changes to the backing collection are taken into
+ * account.</p>
+ */
+public class CommandMatcher {
+
+    private static CommandMap commandMap;
+    private static boolean commandMapResolved;
+
+    private final Collection<String> commands;
+
+    /**
+     * Creates a new {@link CommandMatcher} backed by the given commands.
+     *
+     * @param commands The commands to match, with or without leading slashes
+     */
+    public CommandMatcher(Collection<String> commands) {
+        this.commands = commands;
+    }
+
+    /**
+     * Gets whether the given command message matches any of the backing
+     * commands.
+     *
+     * @param message The command message, with or without a leading slash
+     * @return Whether the message matches
+     */
+    public boolean matches(String message) {
+        if (commands.isEmpty()) {
+            return false;
+        }
+        String normalized = normalize(message);
+        int space = normalized.indexOf(' ');
+        String root = space == -1 ? normalized : normalized.substring(0, space);
+        for (String command : commands) {
+            String entry = normalize(command);
+            if (entry.isEmpty()) {
+                continue;
+            }
+            if (entry.indexOf(' ') == -1 ? entry.equals(root) : entry.equals(normalized)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Normalizes the given command message to lowercase with its root label
+     * resolved to the name of the command it refers to and without its
+     * leading slash or surplus whitespace.
+     *
+     * @param message The command message to normalize
+     * @return The normalized command message
+     */
+    public static String normalize(String message) {
+        String trimmed = message.trim();
+        if (trimmed.startsWith("/")) {
+            trimmed = trimmed.substring(1);
+        }
+        String[] parts = trimmed.toLowerCase().split("\\s+");
+        StringBuilder sb = new StringBuilder(resolve(parts[0]));
+        for (int i = 1; i < parts.length; i++) {
+            sb.append(' ').append(parts[i]);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Resolves the given command label to the name of the command it refers
+     * to, or strips any namespace from it if it cannot be resolved.
+     *
+     * @param label The lowercase command label to resolve
+     * @return The resolved command name
+     */
+    public static String resolve(String label) {
+        CommandMap map = getCommandMap();
+        if (map != null) {
+            Command command = map.getCommand(label);
+            if (command != null) {
+                return command.getName().toLowerCase();
+            }
+        }
+        int colon = label.indexOf(':');
+        return colon != -1 ? label.substring(colon + 1) : label;
+    }
+
+    private static CommandMap getCommandMap() {
+        if (!commandMapResolved) {
+            commandMapResolved = true;
+            try {
+                // not exposed by the API, but present on CraftServer
+                commandMap = (CommandMap) Bukkit.getServer().getClass().getMethod("getCommandMap")
+                        .invoke(Bukkit.getServer());
+            } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException
+                    | ClassCastException ex) {
+                SteelCore.logWarning("Failed to get server command map - command aliases will not be resolved");
+            }
+        }
+        return commandMap;
+    }
+
+}
@@ -0,0 +1,121 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016, Max Roncace <me@caseif.net>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.caseif.flint.steel.util.helper;
+
+import net.caseif.flint.steel.SteelCore;
+
+import com.google.common.collect.Multimap;
+import com.google.common.eventbus.DeadEvent;
+import com.google.common.eventbus.EventBus;
+import com.google.common.reflect.TypeToken;
+
+import java.lang.reflect.Field;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+
+/**
+ * Static utility class for event dispatch.
+ *
+ * <p>{@link EventBus} offers no way to query its subscribers, so the
+ * subscriber map is read reflectively. This allows callers to skip building
+ * events which nothing would receive. If the map cannot be accessed, every
+ * event type is assumed to have subscribers.</p>
+ */
+public class EventHelper {
+
+    private static final Map<Class<?>, Set<? extends Class<?>>> TYPE_HIERARCHIES = new ConcurrentHashMap<>();
+
+    private static Field subscribersField;
+    private static Field lockField;
+
+    static {
+        try {
+            for (Field field : EventBus.class.getDeclaredFields()) {
+                if (Multimap.class.isAssignableFrom(field.getType())) {
+                    field.setAccessible(true);
+                    subscribersField = field;
+                } else if (ReadWriteLock.class.isAssignableFrom(field.getType())) {
+                    field.setAccessible(true);
+                    lockField = field;
+                }
+            }
+        } catch (SecurityException ex) {
+            subscribersField = null;
+        }
+        if (subscribersField == null) {
+            SteelCore.logVerbose("Cannot access EventBus subscribers - all events will be posted");
+        }
+    }
+
+    /**
+     * Gets whether the given {@link EventBus} has any subscriber which would
+     * receive events of the given type, including subscribers to its
+     * supertypes and to {@link DeadEvent}.
+     *
+     * @param bus The {@link EventBus} to check
+     * @param eventType The type of event to check for
+     * @return Whether any subscriber would receive an event of the given type
+     */
+    public static boolean hasSubscribers(EventBus bus, Class<?> eventType) {
+        if (subscribersField == null) {
+            return true;
+        }
+        Lock lock = null;
+        try {
+            if (lockField != null) {
+                lock = ((ReadWriteLock) lockField.get(bus)).readLock();
+                lock.lock();
+            }
+            Multimap<?, ?> subscribers = (Multimap<?, ?>) subscribersField.get(bus);
+            if (subscribers.containsKey(DeadEvent.class)) {
+                return true; // unreceived events must still be posted so they arrive as dead events
+            }
+            for (Class<?> type : getTypeHierarchy(eventType)) {
+                if (subscribers.containsKey(type)) {
+                    return true;
+                }
+            }
+            return false;
+        } catch (IllegalAccessException | ClassCastException ex) {
+            return true;
+        } finally {
+            if (lock != null) {
+                lock.unlock();
+            }
+        }
+    }
+
+    private static Set<? extends Class<?>> getTypeHierarchy(Class<?> type) {
+        Set<? extends Class<?>> hierarchy = TYPE_HIERARCHIES.get(type);
+        if (hierarchy == null) {
+            hierarchy = TypeToken.of(type).getTypes().rawTypes();
+            TYPE_HIERARCHIES.put(type, hierarchy);
+        }
+        return hierarchy;
+    }
+
+}
@@ -25,7 +25,10 @@ package net.caseif.flint.steel.util.helper;
 
 import net.caseif.flint.steel.SteelCore;
 import net.caseif.flint.steel.util.file.DataFiles;
+import net.caseif.flint.steel.util.metrics.SteelMetrics;
 import net.caseif.flint.util.physical.Location3D;
+
+import com.google.common.base.Optional;
 import org.bukkit.Bukkit;
 import org.bukkit.configuration.InvalidConfigurationException;
 import org.bukkit.configuration.file.YamlConfiguration;
@@ -37,8 +40,15 @@ import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 
 /**
  * Static utility class for player-related functionality.
@@ -47,9 +57,15 @@ import java.util.Collection;
  */
 public class PlayerHelper {
 
+    // keys used by the legacy inventory store
     private static final String PLAYER_INVENTORY_PRIMARY_KEY = "primary";
     private static final String PLAYER_INVENTORY_ARMOR_KEY = "armor";
 
+    private static final String STATE_FILE_EXTENSION = ".dat";
+
+    // players with a state record on disk, so that joins without one need no disk access
+    private static final Set<UUID> STORED_STATES = new HashSet<>();
+
     private static Method getOnlinePlayers;
     public static boolean newOnlinePlayersMethod = false;
 
@@ -66,154 +82,358 @@ public class PlayerHelper {
     }
 
     /**
-     * Pushes the inventory of the given player into persistent storage.
+     * Saves the state of the given {@link Player} to persistent storage and
+     * clears their inventory.
      *
-     * @param player The {@link Player} to push the inventory of
-     * @throws IOException If an exception occurs while saving into persistent
+     * @param player The {@link Player} to save the state of
+     * @throws IOException If an exception occurs while saving to persistent
      *     storage
      */
-    public static void pushInventory(Player player) throws IOException {
-        PlayerInventory inv = player.getInventory();
-        // the file to store the inventory in
-        File storage = new File(DataFiles.PLAYER_INVENTORY_DIR.getFile(), player.getUniqueId() + ".yml");
-        if (storage.exists()) { // verify file isn't already present on disk (meaning it wasn't popped the last time)
-            SteelCore.logVerbose("Inventory push requested for player " + player.getName() + ", but "
-                    + "inventory was already present in persistent storage. Popping stored inventory first.");
-            try {
-                popInventory(player);
-            } catch (InvalidConfigurationException ex) {
-                throw new IOException(ex); // this is probably a bad thing of me to do but it's for a fringe case anyway
+    public static void storeState(Player player) throws IOException {
+        long start = SteelMetrics.PLAYER_STATE_WRITE.start();
+        try {
+            File storage = getStateFile(player.getUniqueId());
+            // verify a record isn't already present on disk (meaning it wasn't restored the last time)
+            if (STORED_STATES.contains(player.getUniqueId()) && storage.exists()) {
+                SteelCore.logVerbose("State store requested for player " + player.getName() + ", but a state "
+                        + "was already present in persistent storage. Restoring stored inventory first.");
+                PlayerState.read(storage).apply(player);
+            }
+            PlayerState.capture(player).write(storage);
+            STORED_STATES.add(player.getUniqueId());
+            PlayerInventory inv = player.getInventory();
+            inv.clear(); // clear the inventory to complete the push to disk
+            inv.setArmorContents(new ItemStack[inv.getArmorContents().length]);
+        } finally {
+            SteelMetrics.PLAYER_STATE_WRITE.stop(start);
+        }
+    }
+
+    /**
+     * Stores the state of each of the given {@link Player}s in a single pass,
+     * clearing their inventories once all records have been written.
+     *
+     * <p>Players whose state could not be stored are left untouched and are
+     * included in the returned map alongside the cause of the failure.</p>
+     *
+     * @param players The {@link Player}s whose state should be stored
+     * @return The {@link IOException}s raised for players whose state could not
+     *     be stored, keyed by their UUIDs
+     */
+    public static Map<UUID, IOException> storeStates(Collection<Player> players) {
+        long start = SteelMetrics.PLAYER_STATE_WRITE.start();
+        try {
+            Map<UUID, IOException> failures = new HashMap<>();
+            List<Player> stored = new ArrayList<>(players.size());
+            for (Player player : players) {
+                File storage = getStateFile(player.getUniqueId());
+                try {
+                    if (STORED_STATES.contains(player.getUniqueId()) && storage.exists()) {
+                        SteelCore.logVerbose("State store requested for player " + player.getName() + ", but a "
+                                + "state was already present in persistent storage. Restoring stored inventory first.");
+                        PlayerState.read(storage).apply(player);
+                    }
+                    PlayerState.capture(player).write(storage);
+                } catch (IOException ex) {
+                    failures.put(player.getUniqueId(), ex);
+                    continue;
+                }
+                STORED_STATES.add(player.getUniqueId());
+                stored.add(player);
+            }
+            for (Player player : stored) {
+                PlayerInventory inv = player.getInventory();
+                inv.clear();
+                inv.setArmorContents(new ItemStack[inv.getArmorContents().length]);
             }
+            return failures;
+        } finally {
+            SteelMetrics.PLAYER_STATE_WRITE.stop(start);
         }
-        YamlConfiguration yaml = new YamlConfiguration();
-        yaml.set(PLAYER_INVENTORY_PRIMARY_KEY, InventoryHelper.serializeInventory(inv));
-        yaml.set(PLAYER_INVENTORY_ARMOR_KEY, InventoryHelper.serializeInventory(inv.getArmorContents()));
-        yaml.save(storage); // save to disk
-        inv.clear(); // clear the inventory to complete the push to disk
-        inv.setArmorContents(new ItemStack[inv.getArmorContents().length]);
     }
 
     /**
-     * Pops the inventory of the given player from persistent storage.
+     * Saves the given {@link PlayerState} to persistent storage, replacing
+     * the one currently stored for the player with the given {@link UUID}.
      *
-     * @param player The {@link Player} to pop the inventory of
-     * @throws IllegalArgumentException If the inventory of the given
-     *     {@link Player} is not present in persistent storage
-     * @throws IOException If an exception occurs while loading from persistent
+     * @param uuid The {@link UUID} of the player to save the state of
+     * @param state The {@link PlayerState} to save
+     * @throws IOException If an exception occurs while saving to persistent
      *     storage
-     * @throws InvalidConfigurationException If the stored inventory is invalid
      */
-    //TODO: generalize some of this code for use with rollback storage
-    public static void popInventory(Player player) throws IllegalArgumentException, IOException,
-            InvalidConfigurationException {
-        // the file to load the inventory from
-        File storage = new File(DataFiles.PLAYER_INVENTORY_DIR.getFile(), player.getUniqueId() + ".yml");
-        if (!storage.exists()) { // verify file is present on disk
-            throw new IllegalArgumentException("Inventory pop requested for player " + player.getName() + ", but "
-                    + "inventory was not present in persistent storage!");
-        }
-        YamlConfiguration yaml = new YamlConfiguration();
-        yaml.load(storage); // load from disk
-        if (!yaml.contains(PLAYER_INVENTORY_PRIMARY_KEY)) {
-            throw new InvalidConfigurationException("Stored inventory is missing required section \""
-                    + PLAYER_INVENTORY_PRIMARY_KEY + "\"");
-        }
-        player.getInventory().clear();
-        {
-            player.getInventory().setContents(
-                    InventoryHelper.deserializeInventory(yaml.getConfigurationSection(PLAYER_INVENTORY_PRIMARY_KEY))
-            );
-        }
-        {
-            if (yaml.contains(PLAYER_INVENTORY_ARMOR_KEY)) {
-                player.getInventory().setArmorContents(
-                        InventoryHelper.deserializeInventory(yaml.getConfigurationSection(PLAYER_INVENTORY_ARMOR_KEY))
-                );
+    public static void saveState(UUID uuid, PlayerState state) throws IOException {
+        long start = SteelMetrics.PLAYER_STATE_WRITE.start();
+        try {
+            state.write(getStateFile(uuid));
+            STORED_STATES.add(uuid);
+        } finally {
+            SteelMetrics.PLAYER_STATE_WRITE.stop(start);
+        }
+    }
+
+    /**
+     * Loads the state of the player with the given {@link UUID} from
+     * persistent storage.
+     *
+     * @param uuid The {@link UUID} of the player to load the state of
+     * @return The stored {@link PlayerState}, or {@link Optional#absent()} if
+     *     none is stored
+     * @throws IOException If an exception occurs while loading from
+     *     persistent storage
+     */
+    public static Optional<PlayerState> loadState(UUID uuid) throws IOException {
+        if (!STORED_STATES.contains(uuid)) {
+            return Optional.absent();
+        }
+        long start = SteelMetrics.PLAYER_STATE_READ.start();
+        try {
+            File storage = getStateFile(uuid);
+            return storage.exists() ? Optional.of(PlayerState.read(storage)) : Optional.<PlayerState>absent();
+        } finally {
+            SteelMetrics.PLAYER_STATE_READ.stop(start);
+        }
+    }
+
+    /**
+     * Loads the states of the players with the given {@link UUID}s from
+     * persistent storage in a single pass.
+     *
+     * <p>Players without a stored state are omitted from the returned map, as
+     * are players whose state could not be read (which is logged).</p>
+     *
+     * @param uuids The {@link UUID}s of the players to load the states of
+     * @return The stored {@link PlayerState}s, keyed by {@link UUID}
+     */
+    public static Map<UUID, PlayerState> loadStates(Collection<UUID> uuids) {
+        long start = SteelMetrics.PLAYER_STATE_READ.start();
+        try {
+            Map<UUID, PlayerState> states = new HashMap<>();
+            for (UUID uuid : uuids) {
+                if (!STORED_STATES.contains(uuid)) {
+                    continue;
+                }
+                File storage = getStateFile(uuid);
+                if (!storage.exists()) {
+                    continue;
+                }
+                try {
+                    states.put(uuid, PlayerState.read(storage));
+                } catch (IOException ex) {
+                    SteelCore.logSevere("Could not load state of player " + uuid + " from persistent storage");
+                    ex.printStackTrace();
+                }
             }
+            return states;
+        } finally {
+            SteelMetrics.PLAYER_STATE_READ.stop(start);
         }
-        //noinspection ResultOfMethodCallIgnored
-        storage.delete();
     }
 
     /**
-     * Stores the given {@link Player}'s current location to persistent storage.
+     * Marks the stored state of the player with the given {@link UUID} as
+     * restored without touching its record on disk. The record must later be
+     * removed via {@link PlayerHelper#purgeReleasedStates(Collection)}.
      *
-     * @param player The {@link Player} to store the location of
-     * @throws InvalidConfigurationException If an exception occurs while saving
-     *     to disk
-     * @throws IOException If an exception occurs while saving to disk
+     * @param uuid The {@link UUID} of the player to release the state of
      */
-    public static void storeLocation(Player player) throws InvalidConfigurationException, IOException {
-        storeLocation(player, LocationHelper.convertLocation(player.getLocation()));
+    public static void releaseState(UUID uuid) {
+        STORED_STATES.remove(uuid);
     }
 
     /**
-     * Stores the given {@link Location3D} to persistent storage, associated
-     * with the given {@link Player}.
+     * Deletes the records of the given players' states which have been
+     * released via {@link PlayerHelper#releaseState(UUID)}. Records which have
+     * been stored again since being released are retained.
      *
-     * @param player The {@link Player} to store a {@link Location3D} for
-     * @param location The {@link Location3D} to store
-     * @throws InvalidConfigurationException If an exception occurs while
-     *     loading from disk
-     * @throws IOException If an exception occurs while saving to disk
+     * @param uuids The {@link UUID}s of the players to purge the records of
      */
-    public static void storeLocation(Player player, Location3D location)
-            throws InvalidConfigurationException, IOException {
-        File file = DataFiles.PLAYER_LOCATION_STORE.getFile();
-        YamlConfiguration yaml = new YamlConfiguration();
-        yaml.load(file);
-        yaml.set(player.getUniqueId().toString(), location.serialize());
-        yaml.save(file);
+    public static void purgeReleasedStates(Collection<UUID> uuids) {
+        for (UUID uuid : uuids) {
+            if (!STORED_STATES.contains(uuid)) {
+                //noinspection ResultOfMethodCallIgnored
+                getStateFile(uuid).delete();
+            }
+        }
     }
 
     /**
-     * Pops the given {@link Player}'s stored location from persistent storage,
-     * teleporting them to it.
+     * Deletes the stored state of the player with the given {@link UUID}.
      *
-     * @param player The {@link Player} to load the location of and teleport
-     * @throws IllegalArgumentException If the player's location is not present
-     *     in the persistent store or if an error occurs during deserialization
-     * @throws InvalidConfigurationException If an exception occurs while
-     *     loading from disk
-     * @throws IOException If an exception occurs while saving to disk
+     * @param uuid The {@link UUID} of the player to delete the state of
      */
-    public static void popLocation(Player player)
-            throws IllegalArgumentException, InvalidConfigurationException, IOException {
-        File file = DataFiles.PLAYER_LOCATION_STORE.getFile();
-        YamlConfiguration yaml = new YamlConfiguration();
-        yaml.load(file);
-        Location3D l3d = getReturnLocation(player);
-        player.teleport(LocationHelper.convertLocation(l3d));
-        yaml.set(player.getUniqueId().toString(), null);
-        yaml.save(file);
+    public static void deleteState(UUID uuid) {
+        if (STORED_STATES.remove(uuid)) {
+            //noinspection ResultOfMethodCallIgnored
+            getStateFile(uuid).delete();
+        }
     }
 
     /**
-     * Gets the given {@link Player}'s stored location from persistent storage.
+     * Gets whether a state is stored for the player with the given
+     * {@link UUID}. This does not access the disk.
      *
-     * @param player The {@link Player} to load the location of
-     * @return The stored {@link Location3D}
-     * @throws IllegalArgumentException If the player's location is not present
-     *     in the persistent store or if an error occurs during deserialization
-     *     of the stored location
-     * @throws InvalidConfigurationException If an exception occurs while
-     *     loading from disk
-     * @throws IOException If an exception occurs while saving to disk
+     * @param uuid The {@link UUID} of the player to check
+     * @return Whether a state is stored for the player
      */
-    public static Location3D getReturnLocation(Player player)
-            throws IllegalArgumentException, InvalidConfigurationException, IOException {
-        File file = DataFiles.PLAYER_LOCATION_STORE.getFile();
-        YamlConfiguration yaml = new YamlConfiguration();
-        yaml.load(file);
-        if (!yaml.isSet(player.getUniqueId().toString())) {
-            throw new IllegalArgumentException("Location of player " + player.getName() + " not present in persistent "
-                    + "store");
-        }
-        Location3D l3d = Location3D.deserialize(yaml.getString(player.getUniqueId().toString()));
-        if (!l3d.getWorld().isPresent()) {
-            throw new IllegalArgumentException("World not present in stored location of player " + player.getName());
-        }
-        return l3d;
+    public static boolean hasStoredState(UUID uuid) {
+        return STORED_STATES.contains(uuid);
+    }
+
+    /**
+     * Builds the in-memory index of players with stored states from the
+     * contents of the state directory.
+     *
+     * <p>This must be called once on startup, after legacy stores have been
+     * migrated.</p>
+     */
+    public static void indexStoredStates() {
+        STORED_STATES.clear();
+        File[] files = DataFiles.PLAYER_STATE_DIR.getFile().listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            String name = file.getName();
+            if (!name.endsWith(STATE_FILE_EXTENSION)) {
+                continue;
+            }
+            try {
+                STORED_STATES.add(UUID.fromString(name.substring(0, name.length() - STATE_FILE_EXTENSION.length())));
+            } catch (IllegalArgumentException ex) {
+                SteelCore.logWarning("Ignoring unrecognized file " + name + " in player state directory");
+            }
+        }
+        if (!STORED_STATES.isEmpty()) {
+            SteelCore.logVerbose(STORED_STATES.size() + " player(s) have stored state pending restoration");
+        }
+    }
+
+    /**
+     * Restores the stored state of the given {@link Player}, if any,
+     * teleporting them to their stored return location and deleting the
+     * stored state afterward.
+     *
+     * @param player The {@link Player} to restore the state of
+     * @return Whether a stored state was present
+     * @throws IOException If an exception occurs while loading from
+     *     persistent storage
+     */
+    public static boolean restoreState(Player player) throws IOException {
+        Optional<PlayerState> state = loadState(player.getUniqueId());
+        if (!state.isPresent()) {
+            return false;
+        }
+        state.get().apply(player);
+        Location3D loc = state.get().getReturnLocation();
+        if (loc != null && loc.getWorld().isPresent() && Bukkit.getWorld(loc.getWorld().get()) != null) {
+            player.teleport(LocationHelper.convertLocation(loc));
+        } else {
+            SteelCore.logWarning("Stored return location of player " + player.getName()
+                    + " is missing or invalid - defaulting to world spawn");
+            player.teleport(Bukkit.getWorlds().get(0).getSpawnLocation());
+        }
+        deleteState(player.getUniqueId());
+        return true;
+    }
+
+    /**
+     * Migrates player inventories and locations left in the legacy YAML
+     * stores to {@link PlayerState} records.
+     *
+     * <p>This must be called before any players can join rounds.</p>
+     */
+    public static void migrateLegacyStores() {
+        File invDir = DataFiles.LEGACY_PLAYER_INVENTORY_DIR.getFile();
+        File locStore = DataFiles.LEGACY_PLAYER_LOCATION_STORE.getFile();
+        // stored states now persist until the player returns, so the offline list is redundant
+        //noinspection ResultOfMethodCallIgnored
+        DataFiles.LEGACY_OFFLINE_PLAYER_STORE.getFile().delete();
+        if (!invDir.exists() && !locStore.exists()) {
+            return;
+        }
+
+        YamlConfiguration locs = new YamlConfiguration();
+        Set<String> uuids = new HashSet<>();
+        try {
+            if (locStore.exists()) {
+                locs.load(locStore);
+                uuids.addAll(locs.getKeys(false));
+            }
+        } catch (InvalidConfigurationException | IOException ex) {
+            SteelCore.logSevere("Failed to load legacy player location store - not migrating");
+            ex.printStackTrace();
+            return;
+        }
+        File[] invFiles = invDir.listFiles();
+        if (invFiles != null) {
+            for (File file : invFiles) {
+                if (file.getName().endsWith(".yml")) {
+                    uuids.add(file.getName().substring(0, file.getName().length() - ".yml".length()));
+                }
+            }
+        }
+
+        boolean failed = false;
+        for (String uuid : uuids) {
+            File invFile = new File(invDir, uuid + ".yml");
+            try {
+                // migrated by an earlier run which could not finish - the record must not be overwritten
+                if (getStateFile(UUID.fromString(uuid)).exists()) {
+                    locs.set(uuid, null);
+                    //noinspection ResultOfMethodCallIgnored
+                    invFile.delete();
+                    continue;
+                }
+                ItemStack[] contents = null;
+                ItemStack[] armor = null;
+                if (invFile.exists()) {
+                    YamlConfiguration yaml = new YamlConfiguration();
+                    yaml.load(invFile);
+                    if (yaml.isConfigurationSection(PLAYER_INVENTORY_PRIMARY_KEY)) {
+                        contents = InventoryHelper.deserializeInventory(
+                                yaml.getConfigurationSection(PLAYER_INVENTORY_PRIMARY_KEY)
+                        );
+                    }
+                    if (yaml.isConfigurationSection(PLAYER_INVENTORY_ARMOR_KEY)) {
+                        armor = InventoryHelper.deserializeInventory(
+                                yaml.getConfigurationSection(PLAYER_INVENTORY_ARMOR_KEY)
+                        );
+                    }
+                }
+                Location3D loc = locs.isString(uuid) ? Location3D.deserialize(locs.getString(uuid)) : null;
+                saveState(UUID.fromString(uuid), new PlayerState(contents, armor, loc, null, null, null));
+                locs.set(uuid, null);
+                //noinspection ResultOfMethodCallIgnored
+                invFile.delete();
+            } catch (IllegalArgumentException | InvalidConfigurationException | IOException ex) {
+                SteelCore.logSevere("Failed to migrate legacy state of player " + uuid);
+                ex.printStackTrace();
+                failed = true;
+            }
+        }
+
+        if (failed) {
+            SteelCore.logWarning("Some legacy player data could not be migrated and has been left in place");
+            if (locStore.exists()) {
+                // only players which were not migrated are left in the store
+                try {
+                    locs.save(locStore);
+                } catch (IOException ex) {
+                    SteelCore.logSevere("Failed to save legacy player location store");
+                    ex.printStackTrace();
+                }
+            }
+            return;
+        }
+        //noinspection ResultOfMethodCallIgnored
+        locStore.delete();
+        //noinspection ResultOfMethodCallIgnored
+        invDir.delete(); // only succeeds if nothing else was left in it
+        SteelCore.logInfo("Migrated stored state of " + uuids.size() + " player(s) to the new format");
+    }
+
+    private static File getStateFile(UUID uuid) {
+        return new File(DataFiles.PLAYER_STATE_DIR.getFile(), uuid + STATE_FILE_EXTENSION);
     }
 
     /**
@@ -0,0 +1,230 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016, Max Roncace <me@caseif.net>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.caseif.flint.steel.util.helper;
+
+import net.caseif.flint.util.physical.Location3D;
+
+import org.bukkit.GameMode;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
+import org.bukkit.util.io.BukkitObjectInputStream;
+import org.bukkit.util.io.BukkitObjectOutputStream;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.zip.CRC32;
+
+/**
+ * The state of a player which is saved when they join a round and restored
+ * when they leave it.
+ *
+ * <p>States are persisted as a single binary record per player consisting of
+ * a header, a payload written by a {@link BukkitObjectOutputStream}, and a
+ * CRC32 checksum of the payload, so that a record left truncated by a crash
+ * is detected rather than restored.</p>
+ */
+public final class PlayerState {
+
+    private static final int MAGIC = 0x53544C50; // "STLP"
+    private static final byte FORMAT_VERSION = 1;
+    private static final int MAX_PAYLOAD_LENGTH = 16 * 1024 * 1024;
+
+    private final ItemStack[] contents;
+    private final ItemStack[] armor;
+    private final Location3D returnLocation;
+    private final GameMode gameMode;
+    private final Boolean allowFlight;
+    private final Boolean flying;
+
+    /**
+     * Creates a new {@link PlayerState}. Any value may be {@code null} if it
+     * is unknown, in which case it will not be restored.
+     *
+     * @param contents The contents of the player's main inventory
+     * @param armor The contents of the player's armor slots
+     * @param returnLocation The location to return the player to
+     * @param gameMode The player's game mode
+     * @param allowFlight Whether the player is allowed to fly
+     * @param flying Whether the player is flying
+     */
+    public PlayerState(ItemStack[] contents, ItemStack[] armor, Location3D returnLocation, GameMode gameMode,
+                       Boolean allowFlight, Boolean flying) {
+        this.contents = contents;
+        this.armor = armor;
+        this.returnLocation = returnLocation;
+        this.gameMode = gameMode;
+        this.allowFlight = allowFlight;
+        this.flying = flying;
+    }
+
+    /**
+     * Captures the current state of the given {@link Player}.
+     *
+     * @param player The {@link Player} to capture the state of
+     * @return The captured {@link PlayerState}
+     */
+    public static PlayerState capture(Player player) {
+        PlayerInventory inv = player.getInventory();
+        return new PlayerState(inv.getContents(), inv.getArmorContents(),
+                LocationHelper.convertLocation(player.getLocation()), player.getGameMode(), player.getAllowFlight(),
+                player.isFlying());
+    }
+
+    /**
+     * Gets the location to return the player to.
+     *
+     * @return The location to return the player to, or {@code null} if it is
+     *     unknown
+     */
+    public Location3D getReturnLocation() {
+        return returnLocation;
+    }
+
+    /**
+     * Creates a copy of this {@link PlayerState} with a different return
+     * location.
+     *
+     * @param location The new return location
+     * @return The new {@link PlayerState}
+     */
+    public PlayerState withReturnLocation(Location3D location) {
+        return new PlayerState(contents, armor, location, gameMode, allowFlight, flying);
+    }
+
+    /**
+     * Applies this state to the given {@link Player}, excluding its return
+     * location.
+     *
+     * @param player The {@link Player} to apply this state to
+     */
+    public void apply(Player player) {
+        if (contents != null) {
+            player.getInventory().clear();
+            player.getInventory().setContents(contents);
+        }
+        if (armor != null) {
+            player.getInventory().setArmorContents(armor);
+        }
+        if (gameMode != null) {
+            player.setGameMode(gameMode);
+        }
+        if (allowFlight != null) {
+            player.setAllowFlight(allowFlight);
+            if (allowFlight && flying != null) {
+                player.setFlying(flying);
+            }
+        }
+    }
+
+    /**
+     * Writes this state to the given {@link File}, replacing it atomically if
+     * it already exists.
+     *
+     * @param file The {@link File} to write to
+     * @throws IOException If an exception occurs while writing the record
+     */
+    public void write(File file) throws IOException {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        try (BukkitObjectOutputStream out = new BukkitObjectOutputStream(payload)) {
+            out.writeObject(contents);
+            out.writeObject(armor);
+            out.writeObject(returnLocation != null ? returnLocation.serialize() : null);
+            out.writeObject(gameMode != null ? gameMode.name() : null);
+            out.writeObject(allowFlight);
+            out.writeObject(flying);
+        }
+        byte[] bytes = payload.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+
+        File temp = new File(file.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeByte(FORMAT_VERSION);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+            out.writeLong(crc.getValue());
+        }
+        // no fsync: the rename survives a crash of the server process, and a record torn by power loss fails its
+        // checksum and is left in place rather than applied
+        if (!temp.renameTo(file) && !(file.delete() && temp.renameTo(file))) {
+            throw new IOException("Failed to move " + temp.getName() + " to " + file.getName());
+        }
+    }
+
+    /**
+     * Reads a {@link PlayerState} from the given {@link File}.
+     *
+     * @param file The {@link File} to read from
+     * @return The {@link PlayerState} read from the file
+     * @throws IOException If an exception occurs while reading the record, or
+     *     if the record is malformed or fails its checksum
+     */
+    public static PlayerState read(File file) throws IOException {
+        byte[] bytes;
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Player state record " + file.getName() + " has an invalid header");
+            }
+            byte version = in.readByte();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Player state record " + file.getName() + " has unsupported version "
+                        + version);
+            }
+            int length = in.readInt();
+            if (length < 0 || length > MAX_PAYLOAD_LENGTH) {
+                throw new IOException("Player state record " + file.getName() + " has invalid length " + length);
+            }
+            bytes = new byte[length];
+            in.readFully(bytes);
+            CRC32 crc = new CRC32();
+            crc.update(bytes);
+            if (in.readLong() != crc.getValue()) {
+                throw new IOException("Player state record " + file.getName() + " failed its checksum");
+            }
+        }
+
+        try (BukkitObjectInputStream in = new BukkitObjectInputStream(new ByteArrayInputStream(bytes))) {
+            ItemStack[] contents = (ItemStack[]) in.readObject();
+            ItemStack[] armor = (ItemStack[]) in.readObject();
+            String location = (String) in.readObject();
+            String gameMode = (String) in.readObject();
+            Boolean allowFlight = (Boolean) in.readObject();
+            Boolean flying = (Boolean) in.readObject();
+            return new PlayerState(contents, armor, location != null ? Location3D.deserialize(location) : null,
+                    gameMode != null ? GameMode.valueOf(gameMode) : null, allowFlight, flying);
+        } catch (ClassNotFoundException | ClassCastException | IllegalArgumentException ex) {
+            throw new IOException("Player state record " + file.getName() + " contains invalid data", ex);
+        }
+    }
+
+}
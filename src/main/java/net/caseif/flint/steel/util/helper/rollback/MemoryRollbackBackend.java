@@ -0,0 +1,120 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016, Max Roncace <me@caseif.net>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.caseif.flint.steel.util.helper.rollback;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * In-memory {@link RollbackBackend} which stores records in parallel
+ * primitive arrays.
+ */
+public class MemoryRollbackBackend implements RollbackBackend {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private int size;
+
+    private int[] recordTypes = new int[INITIAL_CAPACITY];
+    private double[] xs = new double[INITIAL_CAPACITY];
+    private double[] ys = new double[INITIAL_CAPACITY];
+    private double[] zs = new double[INITIAL_CAPACITY];
+    private UUID[] uuids = new UUID[INITIAL_CAPACITY];
+    private int[] types = new int[INITIAL_CAPACITY];
+    private int[] data = new int[INITIAL_CAPACITY];
+    private String[] states = new String[INITIAL_CAPACITY];
+
+    @Override
+    public void append(int recordType, double x, double y, double z, UUID uuid, int type, int data,
+                       String stateSerial) {
+        if (size == recordTypes.length) {
+            grow();
+        }
+        recordTypes[size] = recordType;
+        xs[size] = x;
+        ys[size] = y;
+        zs[size] = z;
+        uuids[size] = uuid;
+        types[size] = type;
+        this.data[size] = data;
+        states[size] = stateSerial;
+        size++;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void replay(RollbackHelper helper) throws IOException {
+        // sort indices by chunk so each chunk is visited in one contiguous run
+        // the chunk hash occupies the upper half of the key and the index the lower half
+        long[] order = new long[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = ((long) RollbackHelper.getChunkHash(xs[i], zs[i]) << 32) | i;
+        }
+        Arrays.sort(order);
+        for (long key : order) {
+            int i = (int) (key & 0xFFFFFFFFL);
+            helper.replayRecord(i, recordTypes[i], xs[i], ys[i], zs[i], uuids[i], types[i], data[i], states[i]);
+        }
+    }
+
+    /**
+     * Writes all records held by this {@link MemoryRollbackBackend} to the
+     * given {@link SqliteRollbackBackend} in a single transaction.
+     *
+     * @param target The {@link SqliteRollbackBackend} to write to
+     * @throws SQLException If an exception occurs while writing to the
+     *     rollback database
+     */
+    void drainTo(SqliteRollbackBackend target) throws SQLException {
+        target.appendAll(size, recordTypes, xs, ys, zs, uuids, types, data, states);
+        clear();
+    }
+
+    @Override
+    public void clear() {
+        // release references so serialized state can be collected
+        Arrays.fill(uuids, 0, size, null);
+        Arrays.fill(states, 0, size, null);
+        size = 0;
+    }
+
+    private void grow() {
+        int capacity = recordTypes.length * 2;
+        recordTypes = Arrays.copyOf(recordTypes, capacity);
+        xs = Arrays.copyOf(xs, capacity);
+        ys = Arrays.copyOf(ys, capacity);
+        zs = Arrays.copyOf(zs, capacity);
+        uuids = Arrays.copyOf(uuids, capacity);
+        types = Arrays.copyOf(types, capacity);
+        data = Arrays.copyOf(data, capacity);
+        states = Arrays.copyOf(states, capacity);
+    }
+
+}
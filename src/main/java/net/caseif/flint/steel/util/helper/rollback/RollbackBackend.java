@@ -0,0 +1,86 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016, Max Roncace <me@caseif.net>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.caseif.flint.steel.util.helper.rollback;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.UUID;
+
+/**
+ * A store to which rollback records are written for a single arena and from
+ * which they are later replayed.
+ */
+public interface RollbackBackend {
+
+    /**
+     * Appends a record to this {@link RollbackBackend}.
+     *
+     * @param recordType The type of the record
+     * @param x The x-coordinate of the change
+     * @param y The y-coordinate of the change
+     * @param z The z-coordinate of the change
+     * @param uuid The {@link UUID} of the changed entity, or {@code null} if
+     *     the record does not pertain to an entity
+     * @param type The ordinal of the {@link org.bukkit.Material} or
+     *     {@link org.bukkit.entity.EntityType} of the block or entity
+     * @param data The data value of the block, or {@code -1} if not applicable
+     * @param stateSerial The serialized state of the block or entity, or
+     *     {@code null} if not applicable
+     * @throws IOException If an exception occurs while writing to disk
+     * @throws SQLException If an exception occurs while manipulating the
+     *     rollback database
+     */
+    void append(int recordType, double x, double y, double z, UUID uuid, int type, int data, String stateSerial)
+            throws IOException, SQLException;
+
+    /**
+     * Gets the number of records currently held by this
+     * {@link RollbackBackend}.
+     *
+     * @return The number of records currently held
+     * @throws SQLException If an exception occurs while querying the rollback
+     *     database
+     */
+    int size() throws SQLException;
+
+    /**
+     * Replays all records held by this {@link RollbackBackend} through the
+     * given {@link RollbackHelper}, grouped by chunk.
+     *
+     * @param helper The {@link RollbackHelper} to apply records with
+     * @throws IOException If an exception occurs while applying a record
+     * @throws SQLException If an exception occurs while reading from the
+     *     rollback database
+     */
+    void replay(RollbackHelper helper) throws IOException, SQLException;
+
+    /**
+     * Discards all records held by this {@link RollbackBackend}.
+     *
+     * @throws SQLException If an exception occurs while manipulating the
+     *     rollback database
+     */
+    void clear() throws SQLException;
+
+}
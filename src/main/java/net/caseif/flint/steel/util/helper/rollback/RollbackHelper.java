@@ -27,13 +27,17 @@ import net.caseif.flint.arena.Arena;
 import net.caseif.flint.common.CommonCore;
 import net.caseif.flint.common.util.helper.rollback.CommonRollbackHelper;
 import net.caseif.flint.steel.SteelCore;
+import net.caseif.flint.steel.SteelMain;
 import net.caseif.flint.steel.arena.SteelArena;
+import net.caseif.flint.steel.minigame.SteelMinigame;
 import net.caseif.flint.steel.util.file.DataFiles;
 import net.caseif.flint.steel.util.helper.LocationHelper;
 import net.caseif.flint.steel.util.helper.rollback.serialization.BlockStateSerializer;
 import net.caseif.flint.steel.util.helper.rollback.serialization.EntityStateSerializer;
+import net.caseif.flint.steel.util.metrics.SteelMetrics;
 import net.caseif.flint.util.physical.Location3D;
 
+import com.google.common.base.Optional;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.Material;
@@ -48,9 +52,14 @@ import org.bukkit.inventory.InventoryHolder;
 
 import java.io.IOException;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Static utility class for rollback-related functionality.
@@ -59,6 +68,20 @@ import java.util.UUID;
  */
 public final class RollbackHelper extends CommonRollbackHelper {
 
+    private static final String CONFIG_JOURNAL_THRESHOLD_KEY = "rollback-journal-threshold";
+    private static final String CONFIG_CHECKPOINT_INTERVAL_KEY = "rollback-checkpoint-interval";
+
+    private static final int DEFAULT_JOURNAL_THRESHOLD = 10000;
+    private static final int DEFAULT_CHECKPOINT_INTERVAL = 60;
+
+    // records refer to block and entity types by ordinal while in memory
+    private static final Material[] MATERIALS = Material.values();
+    private static final EntityType[] ENTITY_TYPES = EntityType.values();
+
+    private final TieredRollbackBackend backend;
+
+    private long lastRestoreDuration = -1;
+
     /**
      * Creates a new {@link RollbackHelper} backing the given
      * {@link SteelArena}.
@@ -69,7 +92,17 @@ public final class RollbackHelper extends CommonRollbackHelper {
     public RollbackHelper(SteelArena arena) {
         super(arena, DataFiles.ROLLBACK_STORE.getFile(arena.getMinigame()),
                 DataFiles.ROLLBACK_STATE_STORE.getFile(arena.getMinigame()));
+        int threshold = SteelMain.getInstance().getConfig()
+                .getInt(CONFIG_JOURNAL_THRESHOLD_KEY, DEFAULT_JOURNAL_THRESHOLD);
+        int interval = SteelMain.getInstance().getConfig()
+                .getInt(CONFIG_CHECKPOINT_INTERVAL_KEY, DEFAULT_CHECKPOINT_INTERVAL);
+        backend = new TieredRollbackBackend(
+                new SqliteRollbackBackend(DataFiles.ROLLBACK_STORE.getFile(arena.getMinigame()), arena.getId()),
+                threshold, interval * 1000L);
+        // arenas created mid-compaction must not touch the store either
+        backend.setSpillsDeferred(RollbackMaintenanceRunner.isCompacting(arena.getMinigame()));
     }
+
     /**
      * Logs a rollback change at the given location.
      *
@@ -82,9 +115,19 @@ public final class RollbackHelper extends CommonRollbackHelper {
      */
     @SuppressWarnings("deprecation")
     public void logBlockChange(Location location, BlockState originalState) throws IOException, SQLException {
-        String state = BlockStateSerializer.serializeState(originalState).orNull();
-        logChange(RECORD_TYPE_BLOCK_CHANGED, LocationHelper.convertLocation(location), null,
-                originalState.getType().name(), originalState.getRawData(), state);
+        // only the first change to a block needs to be kept, so skip serialization entirely for the rest
+        if (!backend.claimBlock(location.getBlockX(), location.getBlockY(), location.getBlockZ())) {
+            return;
+        }
+        long start = SteelMetrics.ROLLBACK_LOG.start();
+        try {
+            String state = BlockStateSerializer.serializeState(originalState).orNull();
+            backend.append(RECORD_TYPE_BLOCK_CHANGED, location.getBlockX(), location.getBlockY(),
+                    location.getBlockZ(), null, originalState.getType().ordinal(), originalState.getRawData(), state);
+            SteelMetrics.ROLLBACK_RECORDS.increment();
+        } finally {
+            SteelMetrics.ROLLBACK_LOG.stop(start);
+        }
     }
 
     private void logEntityCreation(Entity entity) throws IOException, SQLException {
@@ -96,10 +139,253 @@ public final class RollbackHelper extends CommonRollbackHelper {
     }
 
     private void logEntitySomething(Entity entity, boolean newlyCreated) throws IOException, SQLException {
-        String state = !newlyCreated ? EntityStateSerializer.serializeState(entity) : null;
-        logChange(newlyCreated ? RECORD_TYPE_ENTITY_CREATED : RECORD_TYPE_ENTITY_CHANGED,
-                LocationHelper.convertLocation(entity.getLocation()), entity.getUniqueId(), entity.getType().name(), -1,
-                state);
+        if (!backend.claimEntity(entity.getUniqueId())) {
+            return;
+        }
+        long start = SteelMetrics.ROLLBACK_LOG.start();
+        try {
+            String state = !newlyCreated ? EntityStateSerializer.serializeState(entity) : null;
+            Location loc = entity.getLocation();
+            backend.append(newlyCreated ? RECORD_TYPE_ENTITY_CREATED : RECORD_TYPE_ENTITY_CHANGED,
+                    loc.getX(), loc.getY(), loc.getZ(), entity.getUniqueId(), entity.getType().ordinal(), -1, state);
+            SteelMetrics.ROLLBACK_RECORDS.increment();
+        } finally {
+            SteelMetrics.ROLLBACK_LOG.stop(start);
+        }
+    }
+
+    /**
+     * Writes the in-memory rollback journal to disk if a checkpoint is due.
+     *
+     * @throws SQLException If an exception occurs while writing to the
+     *     rollback database
+     */
+    public void checkpointJournal() throws SQLException {
+        backend.checkpointIfDue();
+    }
+
+    /**
+     * Restores all changes recorded in the rollback journal and discards them
+     * afterward.
+     *
+     * @throws IOException If an exception occurs while restoring a change
+     * @throws SQLException If an exception occurs while reading from or
+     *     writing to the rollback database
+     */
+    public void restoreJournal() throws IOException, SQLException {
+        long start = SteelMetrics.ROLLBACK_RESTORE.start();
+        try {
+            cacheEntities();
+            backend.replay(this);
+            backend.clear();
+        } finally {
+            SteelMetrics.ROLLBACK_RESTORE.stop(start);
+            lastRestoreDuration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Gets the number of changes logged during this session which have not
+     * yet been restored or discarded.
+     *
+     * @return The number of pending changes
+     */
+    public int getPendingRecordCount() {
+        return backend.getPendingCount();
+    }
+
+    /**
+     * Gets the duration of the most recent restore of the rollback journal.
+     *
+     * @return The duration in milliseconds, or {@code -1} if the journal has
+     *     not been restored this session
+     */
+    public long getLastRestoreDuration() {
+        return lastRestoreDuration;
+    }
+
+    /**
+     * Discards all changes recorded in the rollback journal without restoring
+     * them.
+     *
+     * @throws SQLException If an exception occurs while writing to the
+     *     rollback database
+     */
+    public void discardJournal() throws SQLException {
+        backend.clear();
+    }
+
+    /**
+     * Releases the rollback database connection held for the current round.
+     *
+     * @throws SQLException If an exception occurs while closing the
+     *     connection
+     */
+    public void closeStore() throws SQLException {
+        backend.close();
+    }
+
+    /**
+     * Sets whether writes of the rollback journal to disk are deferred, as
+     * they are while the minigame's rollback store is being compacted.
+     *
+     * @param deferred Whether writes to disk should be deferred
+     */
+    void setSpillsDeferred(boolean deferred) {
+        backend.setSpillsDeferred(deferred);
+    }
+
+    /**
+     * Restores arenas of the given {@link SteelMinigame} which have rollback
+     * records left over from a previous session, as happens when the server
+     * crashes while a round is in progress.
+     *
+     * <p>This must be called before the minigame is able to create rounds.
+     * Arenas are restored one after another on the main thread, ordered by
+     * world and position so neighboring arenas reuse loaded chunks.</p>
+     *
+     * @param minigame The {@link SteelMinigame} to recover arenas for
+     */
+    public static void recoverRollbacks(SteelMinigame minigame) {
+        Map<String, Integer> pending;
+        try {
+            pending = SqliteRollbackBackend.getPendingRecordCounts(DataFiles.ROLLBACK_STORE.getFile(minigame));
+        } catch (SQLException ex) {
+            SteelCore.logSevere("Failed to read pending rollbacks for minigame " + minigame.getPlugin());
+            ex.printStackTrace();
+            return;
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<SteelArena> arenas = new ArrayList<>();
+        for (String id : pending.keySet()) {
+            Optional<Arena> arena = minigame.getArena(id);
+            if (arena.isPresent()) {
+                arenas.add((SteelArena) arena.get());
+            } else {
+                SteelCore.logWarning("Found pending rollback records for nonexistent arena \"" + id
+                        + "\" in minigame " + minigame.getPlugin() + " - not restoring");
+            }
+        }
+        Collections.sort(arenas, new Comparator<SteelArena>() {
+            @Override
+            public int compare(SteelArena a, SteelArena b) {
+                int world = a.getWorld().compareTo(b.getWorld());
+                if (world != 0) {
+                    return world;
+                }
+                int x = Double.compare(a.getBoundary().getLowerBound().getX(), b.getBoundary().getLowerBound().getX());
+                return x != 0
+                        ? x
+                        : Double.compare(a.getBoundary().getLowerBound().getZ(),
+                                b.getBoundary().getLowerBound().getZ());
+            }
+        });
+
+        SteelCore.logInfo("Recovering " + arenas.size() + " arena(s) for minigame " + minigame.getPlugin()
+                + " left unrestored by the previous session");
+        long start = System.nanoTime();
+        for (SteelArena arena : arenas) {
+            long arenaStart = System.nanoTime();
+            arena.getRollbackHelper().backend.markSpilled();
+            try {
+                arena.rollback();
+            } catch (RuntimeException ex) {
+                SteelCore.logSevere("Failed to recover arena " + arena.getId() + " for minigame "
+                        + minigame.getPlugin());
+                ex.printStackTrace();
+                continue;
+            } finally {
+                try {
+                    arena.getRollbackHelper().closeStore();
+                } catch (SQLException ex) {
+                    ex.printStackTrace();
+                }
+            }
+            SteelCore.logVerbose("Restored " + pending.get(arena.getId()) + " record(s) for arena " + arena.getId()
+                    + " in " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - arenaStart) + " ms");
+        }
+        SteelCore.logInfo("Finished recovering arenas for minigame " + minigame.getPlugin() + " in "
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+    }
+
+    /**
+     * Applies a single record read from a {@link RollbackBackend}. The type is
+     * given as the ordinal of the {@link Material} or {@link EntityType}
+     * (depending on the record type), or {@code -1} if it could not be
+     * resolved.
+     */
+    void replayRecord(int id, int recordType, double x, double y, double z, UUID uuid, int type, int data,
+                      String stateSerial) throws IOException {
+        Location3D location = new Location3D(getArena().getWorld(), x, y, z);
+        if (recordType == RECORD_TYPE_BLOCK_CHANGED) {
+            restoreBlock(id, location, type >= 0 ? MATERIALS[type] : null, data, stateSerial);
+        } else if (recordType == RECORD_TYPE_ENTITY_CREATED) {
+            rollbackEntityCreation(id, uuid);
+        } else if (recordType == RECORD_TYPE_ENTITY_CHANGED) {
+            restoreEntity(id, uuid, location, type >= 0 ? ENTITY_TYPES[type] : null, stateSerial);
+        } else {
+            SteelCore.logWarning("Invalid type for rollback record with ID " + id + " in arena "
+                    + getArena().getId());
+        }
+    }
+
+    /**
+     * Gets whether records of the given type refer to a {@link Material}
+     * rather than an {@link EntityType}.
+     *
+     * @param recordType The type of the record
+     * @return Whether the record refers to a {@link Material}
+     */
+    static boolean isBlockRecord(int recordType) {
+        return recordType == RECORD_TYPE_BLOCK_CHANGED;
+    }
+
+    /**
+     * Gets the name of the block or entity type with the given ordinal.
+     *
+     * @param recordType The type of the record the type belongs to
+     * @param type The ordinal of the {@link Material} or {@link EntityType}
+     * @return The name of the type
+     */
+    static String getTypeName(int recordType, int type) {
+        return isBlockRecord(recordType) ? MATERIALS[type].name() : ENTITY_TYPES[type].name();
+    }
+
+    /**
+     * Resolves the given type name to the ordinal of the {@link Material} or
+     * {@link EntityType} it refers to on the running server.
+     *
+     * @param recordType The type of the record the type belongs to
+     * @param name The name of the type
+     * @return The ordinal of the type, or {@code -1} if it does not exist
+     */
+    static int resolveType(int recordType, String name) {
+        if (isBlockRecord(recordType)) {
+            Material m = Material.getMaterial(name);
+            return m != null ? m.ordinal() : -1;
+        }
+        try {
+            return EntityType.valueOf(name).ordinal();
+        } catch (IllegalArgumentException ex) {
+            return -1;
+        }
+    }
+
+    /**
+     * Computes a hash of the chunk containing the given coordinates, used to
+     * group rollback records by chunk.
+     *
+     * @param x The x-coordinate
+     * @param z The z-coordinate
+     * @return The hash of the containing chunk
+     */
+    static int getChunkHash(double x, double z) {
+        int chunkX = (int) Math.floor(x) >> 4;
+        int chunkZ = (int) Math.floor(z) >> 4;
+        return (chunkX << 16) ^ (chunkZ & 0xFFFF);
     }
 
     public static void checkBlockChange(Location location, BlockState state, Event event) {
@@ -130,13 +416,17 @@ public final class RollbackHelper extends CommonRollbackHelper {
         }
     }
 
-    @SuppressWarnings("deprecation")
     @Override
     public void rollbackBlock(int id, Location3D location, String type, int data, String stateSerial)
             throws IOException {
-        Block b = LocationHelper.convertLocation(location).getBlock();
-        Material m = Material.valueOf(type);
+        restoreBlock(id, location, Material.getMaterial(type), data, stateSerial);
+    }
+
+    @SuppressWarnings("deprecation")
+    private void restoreBlock(int id, Location3D location, Material m, int data, String stateSerial)
+            throws IOException {
         if (m != null) {
+            Block b = LocationHelper.convertLocation(location).getBlock();
             if (b.getState() instanceof InventoryHolder) {
                 // Bukkit drops the items if they aren't cleared
                 ((InventoryHolder) b.getState()).getInventory().clear();
@@ -168,7 +458,12 @@ public final class RollbackHelper extends CommonRollbackHelper {
     @Override
     public void rollbackEntityChange(int id, UUID uuid, Location3D location, String type, String stateSerial)
             throws IOException {
-        EntityType entityType = EntityType.valueOf(type);
+        int ordinal = resolveType(RECORD_TYPE_ENTITY_CHANGED, type);
+        restoreEntity(id, uuid, location, ordinal >= 0 ? ENTITY_TYPES[ordinal] : null, stateSerial);
+    }
+
+    private void restoreEntity(int id, UUID uuid, Location3D location, EntityType entityType, String stateSerial)
+            throws IOException {
         if (entityType != null) {
             if (entities.containsKey(uuid)) {
                 Entity e = entities.get(uuid);
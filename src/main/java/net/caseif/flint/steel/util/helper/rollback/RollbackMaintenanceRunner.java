@@ -0,0 +1,161 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016, Max Roncace <me@caseif.net>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.caseif.flint.steel.util.helper.rollback;
+
+import net.caseif.flint.arena.Arena;
+import net.caseif.flint.minigame.Minigame;
+import net.caseif.flint.round.Round;
+import net.caseif.flint.steel.SteelCore;
+import net.caseif.flint.steel.SteelMain;
+import net.caseif.flint.steel.arena.SteelArena;
+import net.caseif.flint.steel.util.file.DataFiles;
+import net.caseif.flint.steel.util.metrics.SteelMetrics;
+
+import org.bukkit.Bukkit;
+
+import java.io.File;
+import java.sql.SQLException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runner class for periodic compaction of minigame rollback stores.
+ *
+ * <p>This runner is invoked on the main thread, where it determines which
+ * minigames are idle. The compaction itself is then carried out
+ * asynchronously.</p>
+ *
+ * <p>While a minigame's store is being compacted, its arenas hold their
+ * rollback journals in memory and rounds created in the meantime defer
+ * creating the store until compaction finishes, so the main thread never
+ * waits on the database.</p>
+ */
+public class RollbackMaintenanceRunner implements Runnable {
+
+    private static final Set<String> COMPACTING
+            = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+    @Override
+    public void run() {
+        for (final Minigame mg : SteelCore.getMinigames().values()) {
+            // only touch the store while nothing can be writing to it
+            if (!mg.getRounds().isEmpty() || isCompacting(mg)) {
+                continue;
+            }
+            final File store = DataFiles.ROLLBACK_STORE.getFile(mg);
+            if (!store.exists() || store.length() == 0) {
+                continue;
+            }
+            final List<String> arenas = new ArrayList<>();
+            for (Arena arena : mg.getArenas()) {
+                arenas.add(arena.getId());
+            }
+            final String plugin = mg.getPlugin();
+            COMPACTING.add(plugin);
+            setSpillsDeferred(mg, true);
+            Bukkit.getScheduler().runTaskAsynchronously(SteelMain.getInstance(), new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        long reclaimed = SqliteRollbackBackend.compact(store, arenas);
+                        SteelMetrics.ROLLBACK_RECLAIMED_BYTES.add(reclaimed);
+                        SteelMetrics.ROLLBACK_COMPACTIONS.increment();
+                        SteelCore.logVerbose("Compacted rollback store for minigame " + plugin + " (reclaimed "
+                                + reclaimed + " bytes)");
+                    } catch (SQLException ex) {
+                        SteelCore.logWarning("Failed to compact rollback store for minigame " + plugin);
+                        ex.printStackTrace();
+                    } finally {
+                        if (SteelMain.getInstance().isEnabled()) {
+                            Bukkit.getScheduler().runTask(SteelMain.getInstance(), new Runnable() {
+                                @Override
+                                public void run() {
+                                    finishCompaction(mg);
+                                }
+                            });
+                        } else {
+                            COMPACTING.remove(plugin);
+                        }
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Gets whether the rollback store of the given {@link Minigame} is
+     * currently being compacted.
+     *
+     * @param minigame The {@link Minigame} to check
+     * @return Whether the minigame's rollback store is being compacted
+     */
+    public static boolean isCompacting(Minigame minigame) {
+        return COMPACTING.contains(minigame.getPlugin());
+    }
+
+    private static void finishCompaction(Minigame minigame) {
+        COMPACTING.remove(minigame.getPlugin());
+        setSpillsDeferred(minigame, false);
+        // rounds created during compaction skipped creating the store
+        for (Round round : minigame.getRounds()) {
+            try {
+                ((SteelArena) round.getArena()).getRollbackHelper().createRollbackDatabase();
+            } catch (IOException | SQLException ex) {
+                SteelCore.logSevere("Failed to create rollback store");
+                ex.printStackTrace();
+            }
+        }
+    }
+
+    private static void setSpillsDeferred(Minigame minigame, boolean deferred) {
+        for (Arena arena : minigame.getArenas()) {
+            ((SteelArena) arena).getRollbackHelper().setSpillsDeferred(deferred);
+        }
+    }
+
+    /**
+     * Gets the total number of bytes reclaimed by rollback store compaction
+     * since the plugin was enabled or metrics were last reset.
+     *
+     * @return The total number of bytes reclaimed
+     */
+    public static long getTotalReclaimedBytes() {
+        return SteelMetrics.ROLLBACK_RECLAIMED_BYTES.getCount();
+    }
+
+    /**
+     * Gets the number of rollback store compactions completed since the plugin
+     * was enabled or metrics were last reset.
+     *
+     * @return The number of completed compactions
+     */
+    public static long getCompactionCount() {
+        return SteelMetrics.ROLLBACK_COMPACTIONS.getCount();
+    }
+
+}
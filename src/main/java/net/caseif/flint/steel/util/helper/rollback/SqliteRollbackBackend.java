@@ -0,0 +1,423 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016, Max Roncace <me@caseif.net>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.caseif.flint.steel.util.helper.rollback;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * {@link RollbackBackend} which persists records to the SQLite rollback store
+ * of an arena's parent minigame.
+ */
+public class SqliteRollbackBackend implements RollbackBackend {
+
+    static final String SQLITE_PROTOCOL = "jdbc:sqlite:";
+
+    static final String TABLE_NAME = "steel_rollback";
+    static final String TYPE_TABLE_NAME = "steel_rollback_types";
+
+    private static final int UNRESOLVED = -2;
+
+    private static final String SQL_CREATE_TABLE = "CREATE TABLE IF NOT EXISTS " + TABLE_NAME + " ("
+            + "id INTEGER PRIMARY KEY AUTOINCREMENT, "
+            + "arena TEXT NOT NULL, "
+            + "record_type INTEGER NOT NULL, "
+            + "x REAL NOT NULL, "
+            + "y REAL NOT NULL, "
+            + "z REAL NOT NULL, "
+            + "chunk INTEGER NOT NULL, "
+            + "uuid TEXT, "
+            + "type INTEGER NOT NULL, "
+            + "data INTEGER NOT NULL, "
+            + "state TEXT)";
+    private static final String SQL_CREATE_INDEX = "CREATE INDEX IF NOT EXISTS " + TABLE_NAME + "_arena_chunk ON "
+            + TABLE_NAME + " (arena, chunk)";
+    // types are interned by name so records stay small and remain valid across server versions
+    private static final String SQL_CREATE_TYPE_TABLE = "CREATE TABLE IF NOT EXISTS " + TYPE_TABLE_NAME + " ("
+            + "id INTEGER PRIMARY KEY, "
+            + "name TEXT NOT NULL UNIQUE)";
+    private static final String SQL_INSERT_TYPE = "INSERT OR IGNORE INTO " + TYPE_TABLE_NAME + " (name) VALUES (?)";
+    private static final String SQL_SELECT_TYPE_ID = "SELECT id FROM " + TYPE_TABLE_NAME + " WHERE name = ?";
+    private static final String SQL_SELECT_TYPES = "SELECT id, name FROM " + TYPE_TABLE_NAME;
+    private static final String SQL_INSERT = "INSERT INTO " + TABLE_NAME
+            + " (arena, record_type, x, y, z, chunk, uuid, type, data, state) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String SQL_SELECT = "SELECT id, record_type, x, y, z, uuid, type, data, state FROM "
+            + TABLE_NAME + " WHERE arena = ? ORDER BY chunk, id";
+    private static final String SQL_COUNT = "SELECT COUNT(*) FROM " + TABLE_NAME + " WHERE arena = ?";
+    private static final String SQL_DELETE = "DELETE FROM " + TABLE_NAME + " WHERE arena = ?";
+    private static final String SQL_COUNT_BY_ARENA = "SELECT arena, COUNT(*) FROM " + TABLE_NAME + " GROUP BY arena";
+    private static final String SQL_TABLE_EXISTS = "SELECT name FROM sqlite_master WHERE type = 'table' AND name = ?";
+    private static final String SQL_DELETE_ALL = "DELETE FROM " + TABLE_NAME;
+    private static final String SQL_DELETE_EXCEPT = "DELETE FROM " + TABLE_NAME + " WHERE arena NOT IN ";
+
+    private static final String[] SQL_PRAGMAS = {
+            "PRAGMA journal_mode = WAL", // persisted in the file, so this is a no-op after the first time
+            "PRAGMA synchronous = NORMAL", // safe in WAL mode and avoids an fsync per transaction
+            "PRAGMA busy_timeout = 5000" // wait out the maintenance task instead of failing immediately
+    };
+
+    private final File store;
+    private final String arena;
+
+    private boolean initialized;
+
+    // held open for the lifetime of a round and released by close()
+    private Connection connection;
+    private PreparedStatement insertStatement;
+    private PreparedStatement selectStatement;
+    private PreparedStatement countStatement;
+    private PreparedStatement deleteStatement;
+    private PreparedStatement insertTypeStatement;
+    private PreparedStatement selectTypeIdStatement;
+
+    // dictionary IDs of type names written through this connection
+    private final Map<String, Integer> typeIds = new HashMap<>();
+
+    /**
+     * Creates a new {@link SqliteRollbackBackend} for the given arena.
+     *
+     * @param store The SQLite database file to persist records to
+     * @param arena The ID of the arena records are persisted for
+     */
+    public SqliteRollbackBackend(File store, String arena) {
+        this.store = store;
+        this.arena = arena;
+    }
+
+    @Override
+    public void append(int recordType, double x, double y, double z, UUID uuid, int type, int data,
+                       String stateSerial) throws SQLException {
+        appendAll(1, new int[] {recordType}, new double[] {x}, new double[] {y}, new double[] {z},
+                new UUID[] {uuid}, new int[] {type}, new int[] {data}, new String[] {stateSerial});
+    }
+
+    /**
+     * Writes the first {@code count} records of the given parallel arrays to
+     * the database in a single transaction.
+     */
+    void appendAll(int count, int[] recordTypes, double[] xs, double[] ys, double[] zs, UUID[] uuids, int[] types,
+                   int[] data, String[] states) throws SQLException {
+        if (count == 0) {
+            return;
+        }
+        Connection conn = getConnection();
+        if (insertStatement == null) {
+            insertStatement = conn.prepareStatement(SQL_INSERT);
+        }
+        conn.setAutoCommit(false);
+        try {
+            for (int i = 0; i < count; i++) {
+                insertStatement.setString(1, arena);
+                insertStatement.setInt(2, recordTypes[i]);
+                insertStatement.setDouble(3, xs[i]);
+                insertStatement.setDouble(4, ys[i]);
+                insertStatement.setDouble(5, zs[i]);
+                insertStatement.setInt(6, RollbackHelper.getChunkHash(xs[i], zs[i]));
+                if (uuids[i] != null) {
+                    insertStatement.setString(7, uuids[i].toString());
+                } else {
+                    insertStatement.setNull(7, Types.VARCHAR);
+                }
+                insertStatement.setInt(8, getTypeId(recordTypes[i], types[i]));
+                insertStatement.setInt(9, data[i]);
+                insertStatement.setString(10, states[i]);
+                insertStatement.addBatch();
+            }
+            insertStatement.executeBatch();
+            conn.commit();
+        } catch (SQLException ex) {
+            insertStatement.clearBatch();
+            conn.rollback();
+            typeIds.clear(); // entries added during the transaction no longer exist
+            throw ex;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    @Override
+    public int size() throws SQLException {
+        if (!store.exists()) {
+            return 0;
+        }
+        if (countStatement == null) {
+            countStatement = getConnection().prepareStatement(SQL_COUNT);
+        }
+        countStatement.setString(1, arena);
+        try (ResultSet rs = countStatement.executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    @Override
+    public void replay(RollbackHelper helper) throws IOException, SQLException {
+        if (selectStatement == null) {
+            selectStatement = getConnection().prepareStatement(SQL_SELECT);
+        }
+        String[] typeNames = loadTypeNames();
+        // each dictionary entry is resolved at most once per namespace
+        int[] blockTypes = new int[typeNames.length];
+        int[] entityTypes = new int[typeNames.length];
+        Arrays.fill(blockTypes, UNRESOLVED);
+        Arrays.fill(entityTypes, UNRESOLVED);
+        selectStatement.setString(1, arena);
+        try (ResultSet rs = selectStatement.executeQuery()) {
+            while (rs.next()) {
+                int recordType = rs.getInt(2);
+                int typeId = rs.getInt(7);
+                int type = -1;
+                if (typeId >= 0 && typeId < typeNames.length && typeNames[typeId] != null) {
+                    int[] cache = RollbackHelper.isBlockRecord(recordType) ? blockTypes : entityTypes;
+                    if (cache[typeId] == UNRESOLVED) {
+                        cache[typeId] = RollbackHelper.resolveType(recordType, typeNames[typeId]);
+                    }
+                    type = cache[typeId];
+                }
+                String uuid = rs.getString(6);
+                helper.replayRecord(rs.getInt(1), recordType, rs.getDouble(3), rs.getDouble(4), rs.getDouble(5),
+                        uuid != null ? UUID.fromString(uuid) : null, type, rs.getInt(8), rs.getString(9));
+            }
+        }
+    }
+
+    @Override
+    public void clear() throws SQLException {
+        if (deleteStatement == null) {
+            deleteStatement = getConnection().prepareStatement(SQL_DELETE);
+        }
+        deleteStatement.setString(1, arena);
+        deleteStatement.executeUpdate();
+    }
+
+    /**
+     * Closes the connection held by this {@link SqliteRollbackBackend} along
+     * with its cached statements. A new connection will be opened the next
+     * time the database is accessed.
+     *
+     * @throws SQLException If an exception occurs while closing the
+     *     connection
+     */
+    public void close() throws SQLException {
+        if (connection == null) {
+            return;
+        }
+        try {
+            for (PreparedStatement st : new PreparedStatement[] {insertStatement, selectStatement, countStatement,
+                    deleteStatement, insertTypeStatement, selectTypeIdStatement}) {
+                if (st != null) {
+                    st.close();
+                }
+            }
+        } finally {
+            insertStatement = null;
+            selectStatement = null;
+            countStatement = null;
+            deleteStatement = null;
+            insertTypeStatement = null;
+            selectTypeIdStatement = null;
+            typeIds.clear();
+            Connection conn = connection;
+            connection = null;
+            conn.close();
+        }
+    }
+
+    /**
+     * Gets the number of records persisted for each arena in the given
+     * rollback store.
+     *
+     * @param store The SQLite database file to query
+     * @return A map of arena IDs to the number of records persisted for them
+     * @throws SQLException If an exception occurs while querying the rollback
+     *     database
+     */
+    static Map<String, Integer> getPendingRecordCounts(File store) throws SQLException {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        if (!store.exists() || store.length() == 0) {
+            return counts; // nothing has ever been spilled
+        }
+        try (Connection conn = DriverManager.getConnection(SQLITE_PROTOCOL + store.getPath())) {
+            if (!tableExists(conn)) {
+                return counts;
+            }
+            try (Statement st = conn.createStatement();
+                 ResultSet rs = st.executeQuery(SQL_COUNT_BY_ARENA)) {
+                while (rs.next()) {
+                    counts.put(rs.getString(1), rs.getInt(2));
+                }
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Deletes records belonging to arenas which no longer exist from the given
+     * rollback store, then vacuums and checkpoints it.
+     *
+     * <p>This should only be invoked while no rounds are active for the
+     * owning minigame.</p>
+     *
+     * @param store The SQLite database file to compact
+     * @param arenas The IDs of all arenas which currently exist
+     * @return The number of bytes reclaimed on disk
+     * @throws SQLException If an exception occurs while manipulating the
+     *     rollback database
+     */
+    static long compact(File store, Collection<String> arenas) throws SQLException {
+        File wal = new File(store.getPath() + "-wal");
+        long sizeBefore = store.length() + wal.length();
+        try (Connection conn = DriverManager.getConnection(SQLITE_PROTOCOL + store.getPath())) {
+            applyPragmas(conn);
+            if (tableExists(conn)) {
+                if (arenas.isEmpty()) {
+                    try (Statement st = conn.createStatement()) {
+                        st.executeUpdate(SQL_DELETE_ALL);
+                    }
+                } else {
+                    StringBuilder sql = new StringBuilder(SQL_DELETE_EXCEPT).append('(');
+                    for (int i = 0; i < arenas.size(); i++) {
+                        sql.append(i > 0 ? ", ?" : "?");
+                    }
+                    sql.append(')');
+                    try (PreparedStatement delete = conn.prepareStatement(sql.toString())) {
+                        int i = 1;
+                        for (String arena : arenas) {
+                            delete.setString(i++, arena);
+                        }
+                        delete.executeUpdate();
+                    }
+                }
+            }
+            try (Statement st = conn.createStatement()) {
+                st.executeUpdate("VACUUM");
+                st.execute("PRAGMA wal_checkpoint(TRUNCATE)");
+            }
+        }
+        return Math.max(sizeBefore - (store.length() + wal.length()), 0);
+    }
+
+    /**
+     * Gets the dictionary ID of the given type, adding it to the dictionary if
+     * necessary. This must be invoked within a transaction so that the
+     * dictionary and the records referring to it are written together.
+     */
+    private int getTypeId(int recordType, int type) throws SQLException {
+        String name = RollbackHelper.getTypeName(recordType, type);
+        Integer id = typeIds.get(name);
+        if (id != null) {
+            return id;
+        }
+        if (insertTypeStatement == null) {
+            insertTypeStatement = getConnection().prepareStatement(SQL_INSERT_TYPE);
+            selectTypeIdStatement = getConnection().prepareStatement(SQL_SELECT_TYPE_ID);
+        }
+        // another arena sharing the store may have already added this type
+        insertTypeStatement.setString(1, name);
+        insertTypeStatement.executeUpdate();
+        selectTypeIdStatement.setString(1, name);
+        try (ResultSet rs = selectTypeIdStatement.executeQuery()) {
+            if (!rs.next()) {
+                throw new SQLException("Failed to intern rollback type " + name);
+            }
+            id = rs.getInt(1);
+        }
+        typeIds.put(name, id);
+        return id;
+    }
+
+    /**
+     * Reads the type dictionary into an array indexed by dictionary ID.
+     */
+    private String[] loadTypeNames() throws SQLException {
+        Map<Integer, String> names = new HashMap<>();
+        int max = -1;
+        try (Statement st = getConnection().createStatement();
+             ResultSet rs = st.executeQuery(SQL_SELECT_TYPES)) {
+            while (rs.next()) {
+                int id = rs.getInt(1);
+                names.put(id, rs.getString(2));
+                max = Math.max(max, id);
+            }
+        }
+        String[] arr = new String[max + 1];
+        for (Map.Entry<Integer, String> e : names.entrySet()) {
+            arr[e.getKey()] = e.getValue();
+        }
+        return arr;
+    }
+
+    private static boolean tableExists(Connection conn) throws SQLException {
+        try (PreparedStatement tableQuery = conn.prepareStatement(SQL_TABLE_EXISTS)) {
+            tableQuery.setString(1, TABLE_NAME);
+            try (ResultSet rs = tableQuery.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    private static void applyPragmas(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            for (String pragma : SQL_PRAGMAS) {
+                st.execute(pragma);
+            }
+        }
+    }
+
+    private Connection getConnection() throws SQLException {
+        if (connection != null) {
+            return connection;
+        }
+        Connection conn = DriverManager.getConnection(SQLITE_PROTOCOL + store.getPath());
+        try {
+            applyPragmas(conn);
+            if (!initialized) {
+                try (Statement st = conn.createStatement()) {
+                    st.executeUpdate(SQL_CREATE_TABLE);
+                    st.executeUpdate(SQL_CREATE_TYPE_TABLE);
+                    st.executeUpdate(SQL_CREATE_INDEX);
+                }
+                initialized = true;
+            }
+        } catch (SQLException ex) {
+            conn.close();
+            throw ex;
+        }
+        connection = conn;
+        return conn;
+    }
+
+}
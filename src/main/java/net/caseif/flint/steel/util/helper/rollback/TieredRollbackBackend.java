@@ -0,0 +1,199 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016, Max Roncace <me@caseif.net>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.caseif.flint.steel.util.helper.rollback;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * {@link RollbackBackend} which holds records in a {@link MemoryRollbackBackend}
+ * and spills them to a {@link SqliteRollbackBackend} once a threshold is
+ * exceeded or a checkpoint is due.
+ *
+ * <p>Only the first change to a given block or entity is retained, since
+ * that is the state which must be restored.</p>
+ */
+public class TieredRollbackBackend implements RollbackBackend {
+
+    private final MemoryRollbackBackend journal = new MemoryRollbackBackend();
+    private final SqliteRollbackBackend store;
+
+    private final int spillThreshold;
+    private final long checkpointInterval;
+
+    private final Set<Long> loggedBlocks = new HashSet<>();
+    private final Set<UUID> loggedEntities = new HashSet<>();
+
+    private boolean spilled;
+    private boolean spillsDeferred;
+    private int spilledRecords;
+    private long lastCheckpoint = System.currentTimeMillis();
+
+    /**
+     * Creates a new {@link TieredRollbackBackend}.
+     *
+     * @param store The {@link SqliteRollbackBackend} to spill records to
+     * @param spillThreshold The number of in-memory records above which the
+     *     journal is spilled to disk
+     * @param checkpointInterval The interval in milliseconds at which the
+     *     journal is checkpointed to disk, or {@code 0} to disable
+     *     checkpointing
+     */
+    public TieredRollbackBackend(SqliteRollbackBackend store, int spillThreshold, long checkpointInterval) {
+        this.store = store;
+        this.spillThreshold = spillThreshold;
+        this.checkpointInterval = checkpointInterval;
+    }
+
+    /**
+     * Claims the block at the given coordinates for logging.
+     *
+     * @param x The x-coordinate of the block
+     * @param y The y-coordinate of the block
+     * @param z The z-coordinate of the block
+     * @return {@code true} if the block has not yet been logged; {@code false}
+     *     otherwise
+     */
+    public boolean claimBlock(int x, int y, int z) {
+        return loggedBlocks.add(((long) (x & 0x3FFFFFF) << 38) | ((long) (z & 0x3FFFFFF) << 12) | (y & 0xFFF));
+    }
+
+    /**
+     * Claims the entity with the given {@link UUID} for logging.
+     *
+     * @param uuid The {@link UUID} of the entity
+     * @return {@code true} if the entity has not yet been logged;
+     *     {@code false} otherwise
+     */
+    public boolean claimEntity(UUID uuid) {
+        return loggedEntities.add(uuid);
+    }
+
+    @Override
+    public void append(int recordType, double x, double y, double z, UUID uuid, int type, int data,
+                       String stateSerial) throws SQLException {
+        journal.append(recordType, x, y, z, uuid, type, data, stateSerial);
+        if (journal.size() > spillThreshold && !spillsDeferred) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes the in-memory journal to disk if the checkpoint interval has
+     * elapsed since it was last written.
+     *
+     * @throws SQLException If an exception occurs while writing to the
+     *     rollback database
+     */
+    public void checkpointIfDue() throws SQLException {
+        if (!spillsDeferred && checkpointInterval > 0
+                && System.currentTimeMillis() - lastCheckpoint >= checkpointInterval) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes all in-memory records to disk.
+     *
+     * @throws SQLException If an exception occurs while writing to the
+     *     rollback database
+     */
+    public void flush() throws SQLException {
+        if (journal.size() > 0) {
+            spilledRecords += journal.size();
+            journal.drainTo(store);
+            spilled = true;
+        }
+        lastCheckpoint = System.currentTimeMillis();
+    }
+
+    /**
+     * Sets whether spills and checkpoints are deferred. While deferred,
+     * records are held in memory regardless of the spill threshold.
+     *
+     * @param deferred Whether spills and checkpoints should be deferred
+     */
+    public void setSpillsDeferred(boolean deferred) {
+        this.spillsDeferred = deferred;
+    }
+
+    /**
+     * Marks the on-disk store as possibly containing records which were not
+     * written during this session, such as those left behind by a crash.
+     */
+    public void markSpilled() {
+        spilled = true;
+    }
+
+    @Override
+    public int size() throws SQLException {
+        return journal.size() + (spilled ? store.size() : 0);
+    }
+
+    /**
+     * Gets the number of records logged during this session which have not
+     * yet been restored or discarded, without querying the on-disk store.
+     *
+     * @return The number of pending records
+     */
+    public int getPendingCount() {
+        return journal.size() + spilledRecords;
+    }
+
+    @Override
+    public void replay(RollbackHelper helper) throws IOException, SQLException {
+        // spilled records are always older than those still in memory
+        if (spilled) {
+            store.replay(helper);
+        }
+        journal.replay(helper);
+    }
+
+    @Override
+    public void clear() throws SQLException {
+        journal.clear();
+        if (spilled) {
+            store.clear();
+            spilled = false;
+        }
+        spilledRecords = 0;
+        loggedBlocks.clear();
+        loggedEntities.clear();
+        lastCheckpoint = System.currentTimeMillis();
+    }
+
+    /**
+     * Releases the database connection held by the on-disk store.
+     *
+     * @throws SQLException If an exception occurs while closing the
+     *     connection
+     */
+    public void close() throws SQLException {
+        store.close();
+    }
+
+}
@@ -0,0 +1,118 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016, Max Roncace <me@caseif.net>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.caseif.flint.steel.util.management;
+
+/**
+ * Management interface exposing the state of a single arena over JMX.
+ *
+ * <p>All values are read from a snapshot which is refreshed periodically on
+ * the main thread, so they may lag behind the live state slightly.</p>
+ */
+public interface ArenaMXBean {
+
+    /**
+     * Gets the ID of the arena.
+     *
+     * @return The ID of the arena
+     */
+    String getId();
+
+    /**
+     * Gets the display name of the arena.
+     *
+     * @return The display name of the arena
+     */
+    String getDisplayName();
+
+    /**
+     * Gets the name of the world containing the arena.
+     *
+     * @return The name of the world containing the arena
+     */
+    String getWorld();
+
+    /**
+     * Gets whether the arena currently contains a round.
+     *
+     * @return Whether the arena currently contains a round
+     */
+    boolean isRoundActive();
+
+    /**
+     * Gets the number of challengers in the arena's current round.
+     *
+     * @return The number of challengers, or {@code 0} if no round is active
+     */
+    int getChallengerCount();
+
+    /**
+     * Gets the ID of the lifecycle stage of the arena's current round.
+     *
+     * @return The ID of the current lifecycle stage, or {@code null} if no
+     *     round is active
+     */
+    String getLifecycleStage();
+
+    /**
+     * Gets the time in seconds the arena's current round has spent in its
+     * current lifecycle stage.
+     *
+     * @return The elapsed time of the current lifecycle stage, or {@code 0}
+     *     if no round is active
+     */
+    long getStageTime();
+
+    /**
+     * Gets the time in seconds remaining in the current lifecycle stage of the
+     * arena's round.
+     *
+     * @return The remaining time of the current lifecycle stage, or
+     *     {@code -1} if it is indefinite or no round is active
+     */
+    long getRemainingTime();
+
+    /**
+     * Gets the number of rollback records logged for the arena which have not
+     * yet been restored.
+     *
+     * @return The number of pending rollback records
+     */
+    int getPendingRollbackRecords();
+
+    /**
+     * Gets the duration of the arena's most recent rollback restore.
+     *
+     * @return The duration of the last restore in milliseconds, or {@code -1}
+     *     if the arena has not been restored this session
+     */
+    long getLastRestoreMillis();
+
+    /**
+     * Gets the number of lobby signs registered for the arena.
+     *
+     * @return The number of lobby signs registered for the arena
+     */
+    int getLobbySignCount();
+
+}
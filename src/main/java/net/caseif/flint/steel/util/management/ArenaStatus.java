@@ -0,0 +1,142 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016, Max Roncace <me@caseif.net>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.caseif.flint.steel.util.management;
+
+import net.caseif.flint.round.Round;
+import net.caseif.flint.steel.arena.SteelArena;
+
+/**
+ * {@link ArenaMXBean} implementation backed by an immutable snapshot of an
+ * arena's state.
+ *
+ * <p>The snapshot is replaced wholesale by {@link ManagementRunner} on the
+ * main thread, so reads from JMX threads never touch live server state.</p>
+ */
+public class ArenaStatus implements ArenaMXBean {
+
+    private final String id;
+    private final String displayName;
+    private final String world;
+
+    private volatile Snapshot snapshot = new Snapshot();
+
+    ArenaStatus(SteelArena arena) {
+        this.id = arena.getId();
+        this.displayName = arena.getName();
+        this.world = arena.getWorld();
+    }
+
+    /**
+     * Replaces the current snapshot with one taken from the given arena.
+     *
+     * <p>This must be called from the main thread.</p>
+     *
+     * @param arena The {@link SteelArena} to take the snapshot from
+     */
+    void update(SteelArena arena) {
+        Snapshot snap = new Snapshot();
+        if (arena.getRound().isPresent()) {
+            Round round = arena.getRound().get();
+            snap.roundActive = true;
+            snap.challengerCount = round.getChallengers().size();
+            snap.lifecycleStage = round.getLifecycleStage().getId();
+            snap.stageTime = round.getTime();
+            snap.remainingTime = round.getRemainingTime();
+        }
+        snap.pendingRollbackRecords = arena.getRollbackHelper().getPendingRecordCount();
+        snap.lastRestoreMillis = arena.getRollbackHelper().getLastRestoreDuration();
+        snap.lobbySignCount = arena.getLobbySigns().size();
+        snapshot = snap;
+    }
+
+    @Override
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    @Override
+    public String getWorld() {
+        return world;
+    }
+
+    @Override
+    public boolean isRoundActive() {
+        return snapshot.roundActive;
+    }
+
+    @Override
+    public int getChallengerCount() {
+        return snapshot.challengerCount;
+    }
+
+    @Override
+    public String getLifecycleStage() {
+        return snapshot.lifecycleStage;
+    }
+
+    @Override
+    public long getStageTime() {
+        return snapshot.stageTime;
+    }
+
+    @Override
+    public long getRemainingTime() {
+        return snapshot.remainingTime;
+    }
+
+    @Override
+    public int getPendingRollbackRecords() {
+        return snapshot.pendingRollbackRecords;
+    }
+
+    @Override
+    public long getLastRestoreMillis() {
+        return snapshot.lastRestoreMillis;
+    }
+
+    @Override
+    public int getLobbySignCount() {
+        return snapshot.lobbySignCount;
+    }
+
+    // fields are only written before the snapshot is published
+    private static class Snapshot {
+
+        private boolean roundActive;
+        private int challengerCount;
+        private String lifecycleStage;
+        private long stageTime;
+        private long remainingTime = -1;
+        private int pendingRollbackRecords;
+        private long lastRestoreMillis = -1;
+        private int lobbySignCount;
+
+    }
+
+}
@@ -0,0 +1,182 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016, Max Roncace <me@caseif.net>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.caseif.flint.steel.util.management;
+
+import net.caseif.flint.arena.Arena;
+import net.caseif.flint.minigame.Minigame;
+import net.caseif.flint.steel.SteelCore;
+import net.caseif.flint.steel.arena.SteelArena;
+import net.caseif.flint.steel.minigame.SteelMinigame;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+
+/**
+ * Runner class which publishes Steel's state to the platform MBean server.
+ *
+ * <p>This runner must be invoked on the main thread. Each run refreshes the
+ * snapshots backing the registered MBeans and registers or unregisters MBeans
+ * for minigames and arenas which have appeared or disappeared since the
+ * previous run.</p>
+ */
+public class ManagementRunner implements Runnable {
+
+    private static final String DOMAIN = "net.caseif.flint.steel";
+
+    private final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+    private final Map<ObjectName, MinigameStatus> minigames = new HashMap<>();
+    private final Map<ObjectName, ArenaStatus> arenas = new HashMap<>();
+
+    private ObjectName metricsName;
+
+    /**
+     * Registers the MBean exposing Steel's metrics.
+     */
+    public void registerMetrics() {
+        try {
+            metricsName = new ObjectName(DOMAIN + ":type=Metrics");
+            server.registerMBean(new MetricsBean(), metricsName);
+        } catch (JMException ex) {
+            metricsName = null;
+            SteelCore.logWarning("Failed to register metrics MBean");
+            ex.printStackTrace();
+        }
+    }
+
+    @Override
+    public void run() {
+        Set<ObjectName> seen = new HashSet<>();
+        for (Minigame mg : SteelCore.getMinigames().values()) {
+            SteelMinigame minigame = (SteelMinigame) mg;
+            List<ArenaStatus> arenaStatuses = new ArrayList<>();
+            for (Arena a : minigame.getArenas()) {
+                SteelArena arena = (SteelArena) a;
+                ObjectName name = getName(minigame, arena);
+                if (name == null) {
+                    continue;
+                }
+                ArenaStatus status = arenas.get(name);
+                if (status == null) {
+                    status = new ArenaStatus(arena);
+                    if (!register(status, name)) {
+                        continue;
+                    }
+                }
+                status.update(arena);
+                arenaStatuses.add(status);
+                seen.add(name);
+            }
+
+            ObjectName name = getName(minigame, null);
+            if (name == null) {
+                continue;
+            }
+            MinigameStatus status = minigames.get(name);
+            if (status == null) {
+                status = new MinigameStatus(minigame);
+                if (!register(status, name)) {
+                    continue;
+                }
+            }
+            status.update(minigame, arenaStatuses);
+            seen.add(name);
+        }
+
+        unregisterMissing(minigames, seen);
+        unregisterMissing(arenas, seen);
+    }
+
+    /**
+     * Unregisters all MBeans registered by this runner.
+     */
+    public void unregisterAll() {
+        unregisterMissing(minigames, new HashSet<ObjectName>());
+        unregisterMissing(arenas, new HashSet<ObjectName>());
+        if (metricsName != null) {
+            unregister(metricsName);
+            metricsName = null;
+        }
+    }
+
+    private boolean register(Object bean, ObjectName name) {
+        try {
+            server.registerMBean(bean, name);
+        } catch (JMException ex) {
+            SteelCore.logWarning("Failed to register MBean " + name);
+            ex.printStackTrace();
+            return false;
+        }
+        if (bean instanceof ArenaStatus) {
+            arenas.put(name, (ArenaStatus) bean);
+        } else {
+            minigames.put(name, (MinigameStatus) bean);
+        }
+        return true;
+    }
+
+    private void unregister(ObjectName name) {
+        try {
+            server.unregisterMBean(name);
+        } catch (JMException ex) {
+            SteelCore.logVerbose("Failed to unregister MBean " + name);
+        }
+    }
+
+    private void unregisterMissing(Map<ObjectName, ?> registered, Set<ObjectName> present) {
+        Iterator<ObjectName> it = registered.keySet().iterator();
+        while (it.hasNext()) {
+            ObjectName name = it.next();
+            if (!present.contains(name)) {
+                unregister(name);
+                it.remove();
+            }
+        }
+    }
+
+    private static ObjectName getName(SteelMinigame minigame, SteelArena arena) {
+        String name = DOMAIN + ":type=" + (arena != null ? "Arena" : "Minigame")
+                + ",minigame=" + ObjectName.quote(minigame.getPlugin());
+        if (arena != null) {
+            name += ",name=" + ObjectName.quote(arena.getId());
+        }
+        try {
+            return new ObjectName(name);
+        } catch (MalformedObjectNameException ex) {
+            SteelCore.logVerbose("Cannot create MBean name " + name);
+            return null;
+        }
+    }
+
+}
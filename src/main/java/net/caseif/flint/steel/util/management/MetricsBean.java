@@ -0,0 +1,125 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016, Max Roncace <me@caseif.net>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.caseif.flint.steel.util.management;
+
+import net.caseif.flint.steel.util.metrics.Metric;
+import net.caseif.flint.steel.util.metrics.MetricRegistry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanConstructorInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanNotificationInfo;
+import javax.management.MBeanOperationInfo;
+import javax.management.ReflectionException;
+
+/**
+ * Read-only {@link DynamicMBean} exposing every value of every {@link Metric}
+ * in the {@link MetricRegistry} as an attribute named
+ * {@code <metric>.<label>}.
+ *
+ * <p>A {@code reset} operation is provided which resets all metrics.</p>
+ */
+public class MetricsBean implements DynamicMBean {
+
+    private static final String OPERATION_RESET = "reset";
+
+    @Override
+    public Object getAttribute(String attribute) throws AttributeNotFoundException {
+        int sep = attribute.lastIndexOf('.');
+        if (sep != -1) {
+            String metricName = attribute.substring(0, sep);
+            String label = attribute.substring(sep + 1);
+            for (Metric metric : MetricRegistry.getMetrics()) {
+                if (metric.getName().equals(metricName)) {
+                    Number value = metric.getValues().get(label);
+                    if (value != null) {
+                        return value.doubleValue();
+                    }
+                    break;
+                }
+            }
+        }
+        throw new AttributeNotFoundException("No such metric value: " + attribute);
+    }
+
+    @Override
+    public AttributeList getAttributes(String[] attributes) {
+        AttributeList list = new AttributeList();
+        for (String attribute : attributes) {
+            try {
+                list.add(new Attribute(attribute, getAttribute(attribute)));
+            } catch (AttributeNotFoundException ignored) {
+                // per the contract of getAttributes, missing attributes are omitted
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+        throw new AttributeNotFoundException("Metric values are read-only");
+    }
+
+    @Override
+    public AttributeList setAttributes(AttributeList attributes) {
+        return new AttributeList();
+    }
+
+    @Override
+    public Object invoke(String actionName, Object[] params, String[] signature) throws ReflectionException {
+        if (OPERATION_RESET.equals(actionName)) {
+            MetricRegistry.resetAll();
+            return null;
+        }
+        throw new ReflectionException(new NoSuchMethodException(actionName), "No such operation: " + actionName);
+    }
+
+    @Override
+    public MBeanInfo getMBeanInfo() {
+        List<MBeanAttributeInfo> attributes = new ArrayList<>();
+        for (Metric metric : MetricRegistry.getMetrics()) {
+            for (Map.Entry<String, Number> e : metric.getValues().entrySet()) {
+                attributes.add(new MBeanAttributeInfo(metric.getName() + "." + e.getKey(), Double.class.getName(),
+                        e.getKey() + " of " + metric.getName(), true, false, false));
+            }
+        }
+        return new MBeanInfo(
+                getClass().getName(),
+                "Steel metrics",
+                attributes.toArray(new MBeanAttributeInfo[attributes.size()]),
+                new MBeanConstructorInfo[0],
+                new MBeanOperationInfo[]{new MBeanOperationInfo(OPERATION_RESET, "Resets all metrics",
+                        null, "void", MBeanOperationInfo.ACTION)},
+                new MBeanNotificationInfo[0]
+        );
+    }
+
+}
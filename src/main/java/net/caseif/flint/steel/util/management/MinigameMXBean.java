@@ -0,0 +1,87 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016, Max Roncace <me@caseif.net>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.caseif.flint.steel.util.management;
+
+/**
+ * Management interface exposing the state of a single minigame over JMX.
+ *
+ * <p>All values are read from a snapshot which is refreshed periodically on
+ * the main thread, so they may lag behind the live state slightly.</p>
+ */
+public interface MinigameMXBean {
+
+    /**
+     * Gets the name of the plugin which owns the minigame.
+     *
+     * @return The name of the plugin which owns the minigame
+     */
+    String getPlugin();
+
+    /**
+     * Gets the number of arenas registered for the minigame.
+     *
+     * @return The number of arenas registered for the minigame
+     */
+    int getArenaCount();
+
+    /**
+     * Gets the number of rounds currently active in the minigame.
+     *
+     * @return The number of active rounds
+     */
+    int getActiveRoundCount();
+
+    /**
+     * Gets the total number of challengers across all of the minigame's
+     * rounds.
+     *
+     * @return The total number of challengers
+     */
+    int getChallengerCount();
+
+    /**
+     * Gets the total number of pending rollback records across all of the
+     * minigame's arenas.
+     *
+     * @return The total number of pending rollback records
+     */
+    int getPendingRollbackRecords();
+
+    /**
+     * Gets the total number of lobby signs across all of the minigame's
+     * arenas.
+     *
+     * @return The total number of lobby signs
+     */
+    int getLobbySignCount();
+
+    /**
+     * Gets the number of players currently engaged in the minigame's lobby
+     * wizard.
+     *
+     * @return The number of active wizard sessions
+     */
+    int getWizardSessionCount();
+
+}
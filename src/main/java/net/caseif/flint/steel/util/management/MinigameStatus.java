@@ -0,0 +1,114 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016, Max Roncace <me@caseif.net>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.caseif.flint.steel.util.management;
+
+import net.caseif.flint.steel.minigame.SteelMinigame;
+
+/**
+ * {@link MinigameMXBean} implementation backed by an immutable snapshot of a
+ * minigame's state.
+ *
+ * <p>The snapshot is replaced wholesale by {@link ManagementRunner} on the
+ * main thread, so reads from JMX threads never touch live server state.</p>
+ */
+public class MinigameStatus implements MinigameMXBean {
+
+    private final String plugin;
+
+    private volatile Snapshot snapshot = new Snapshot();
+
+    MinigameStatus(SteelMinigame minigame) {
+        this.plugin = minigame.getPlugin();
+    }
+
+    /**
+     * Replaces the current snapshot with one taken from the given minigame
+     * and the freshly updated statuses of its arenas.
+     *
+     * <p>This must be called from the main thread.</p>
+     *
+     * @param minigame The {@link SteelMinigame} to take the snapshot from
+     * @param arenas The statuses of the minigame's arenas
+     */
+    void update(SteelMinigame minigame, Iterable<ArenaStatus> arenas) {
+        Snapshot snap = new Snapshot();
+        for (ArenaStatus arena : arenas) {
+            snap.arenaCount++;
+            snap.challengerCount += arena.getChallengerCount();
+            snap.pendingRollbackRecords += arena.getPendingRollbackRecords();
+            snap.lobbySignCount += arena.getLobbySignCount();
+        }
+        snap.activeRoundCount = minigame.getRounds().size();
+        snap.wizardSessionCount = minigame.getLobbyWizardManager().getSessionCount();
+        snapshot = snap;
+    }
+
+    @Override
+    public String getPlugin() {
+        return plugin;
+    }
+
+    @Override
+    public int getArenaCount() {
+        return snapshot.arenaCount;
+    }
+
+    @Override
+    public int getActiveRoundCount() {
+        return snapshot.activeRoundCount;
+    }
+
+    @Override
+    public int getChallengerCount() {
+        return snapshot.challengerCount;
+    }
+
+    @Override
+    public int getPendingRollbackRecords() {
+        return snapshot.pendingRollbackRecords;
+    }
+
+    @Override
+    public int getLobbySignCount() {
+        return snapshot.lobbySignCount;
+    }
+
+    @Override
+    public int getWizardSessionCount() {
+        return snapshot.wizardSessionCount;
+    }
+
+    // fields are only written before the snapshot is published
+    private static class Snapshot {
+
+        private int arenaCount;
+        private int activeRoundCount;
+        private int challengerCount;
+        private int pendingRollbackRecords;
+        private int lobbySignCount;
+        private int wizardSessionCount;
+
+    }
+
+}
@@ -0,0 +1,100 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016, Max Roncace <me@caseif.net>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.caseif.flint.steel.util.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link Metric} which counts occurrences of an event and reports the mean
+ * rate at which they occurred.
+ */
+public class Counter implements Metric {
+
+    private final String name;
+    private final AtomicLong count = new AtomicLong();
+    private volatile long startTime = System.nanoTime();
+
+    Counter(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Increments this {@link Counter} by one.
+     */
+    public void increment() {
+        count.incrementAndGet();
+    }
+
+    /**
+     * Increments this {@link Counter} by the given amount.
+     *
+     * @param amount The amount to increment by
+     */
+    public void add(long amount) {
+        count.addAndGet(amount);
+    }
+
+    /**
+     * Gets the current count of this {@link Counter}.
+     *
+     * @return The current count
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * Gets the mean number of occurrences per second since this
+     * {@link Counter} was created or last reset.
+     *
+     * @return The mean rate per second
+     */
+    public double getRate() {
+        long elapsed = System.nanoTime() - startTime;
+        return elapsed > 0 ? count.get() / (elapsed / (double) TimeUnit.SECONDS.toNanos(1)) : 0;
+    }
+
+    @Override
+    public Map<String, Number> getValues() {
+        Map<String, Number> values = new LinkedHashMap<>();
+        values.put("count", getCount());
+        values.put("per-second", getRate());
+        return values;
+    }
+
+    @Override
+    public void reset() {
+        count.set(0);
+        startTime = System.nanoTime();
+    }
+
+}
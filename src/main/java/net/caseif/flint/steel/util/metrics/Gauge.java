@@ -0,0 +1,77 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016, Max Roncace <me@caseif.net>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.caseif.flint.steel.util.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * {@link Metric} which reports the most recently observed value of a
+ * quantity.
+ *
+ * <p>As a gauge reflects current state rather than accumulated activity,
+ * resetting it has no effect.</p>
+ */
+public class Gauge implements Metric {
+
+    private final String name;
+    private volatile long value;
+
+    Gauge(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Sets the current value of this {@link Gauge}.
+     *
+     * @param value The current value
+     */
+    public void set(long value) {
+        this.value = value;
+    }
+
+    /**
+     * Gets the current value of this {@link Gauge}.
+     *
+     * @return The current value
+     */
+    public long getValue() {
+        return value;
+    }
+
+    @Override
+    public Map<String, Number> getValues() {
+        return Collections.<String, Number>singletonMap("value", value);
+    }
+
+    @Override
+    public void reset() {
+    }
+
+}
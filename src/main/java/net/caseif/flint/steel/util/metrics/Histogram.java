@@ -0,0 +1,209 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016, Max Roncace <me@caseif.net>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.caseif.flint.steel.util.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * {@link Metric} which records the distribution of non-negative values.
+ *
+ * <p>Values are counted in logarithmic buckets, each power of two being split
+ * into four, so recording is constant-time and allocation-free. Percentiles
+ * are therefore approximate, overstating the true value by at most 25%.</p>
+ */
+public class Histogram implements Metric {
+
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (Long.SIZE - 1) * SUB_BUCKETS;
+
+    private static final double[] REPORTED_PERCENTILES = {50, 90, 99};
+
+    private final String name;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Creates a new {@link Histogram} which is not registered with the
+     * {@link MetricRegistry}.
+     *
+     * @param name The name of the new {@link Histogram}
+     */
+    public Histogram(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Records the given value. Negative values are recorded as zero.
+     *
+     * @param value The value to record
+     */
+    public void record(long value) {
+        value = Math.max(value, 0);
+        buckets.incrementAndGet(getBucket(value));
+        count.incrementAndGet();
+        sum.addAndGet(value);
+        updateMax(value);
+    }
+
+    /**
+     * Adds all values recorded by the given {@link Histogram} to this one.
+     *
+     * @param other The {@link Histogram} to add the values of
+     */
+    public void add(Histogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long n = other.buckets.get(i);
+            if (n > 0) {
+                buckets.addAndGet(i, n);
+            }
+        }
+        count.addAndGet(other.count.get());
+        sum.addAndGet(other.sum.get());
+        updateMax(other.max.get());
+    }
+
+    /**
+     * Gets the number of values recorded.
+     *
+     * @return The number of values recorded
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * Gets the sum of all recorded values.
+     *
+     * @return The sum of all recorded values
+     */
+    public long getSum() {
+        return sum.get();
+    }
+
+    /**
+     * Gets the mean of all recorded values.
+     *
+     * @return The mean of all recorded values, or {@code 0} if none have been
+     *     recorded
+     */
+    public double getMean() {
+        long n = count.get();
+        return n > 0 ? sum.get() / (double) n : 0;
+    }
+
+    /**
+     * Gets the largest recorded value.
+     *
+     * @return The largest recorded value
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Gets an estimate of the given percentile of the recorded values.
+     *
+     * @param percentile The percentile to estimate, between {@code 0} and
+     *     {@code 100}
+     * @return An estimate of the percentile, or {@code 0} if no values have
+     *     been recorded
+     */
+    public long getPercentile(double percentile) {
+        long n = count.get();
+        if (n == 0) {
+            return 0;
+        }
+        long target = Math.max((long) Math.ceil(percentile / 100 * n), 1);
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += buckets.get(i);
+            if (seen >= target) {
+                return Math.min(getBucketUpperBound(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    @Override
+    public Map<String, Number> getValues() {
+        Map<String, Number> values = new LinkedHashMap<>();
+        values.put("count", getCount());
+        values.put("mean", getMean());
+        for (double p : REPORTED_PERCENTILES) {
+            values.put("p" + (int) p, getPercentile(p));
+        }
+        values.put("max", getMax());
+        return values;
+    }
+
+    @Override
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets.set(i, 0);
+        }
+        count.set(0);
+        sum.set(0);
+        max.set(0);
+    }
+
+    private void updateMax(long value) {
+        long currentMax;
+        while (value > (currentMax = max.get())) {
+            if (max.compareAndSet(currentMax, value)) {
+                break;
+            }
+        }
+    }
+
+    private static int getBucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long getBucketUpperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lower = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        return lower + (1L << shift) - 1;
+    }
+
+}
@@ -0,0 +1,55 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016, Max Roncace <me@caseif.net>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.caseif.flint.steel.util.metrics;
+
+import java.util.Map;
+
+/**
+ * A named measurement maintained by the {@link MetricRegistry}.
+ *
+ * <p>Metrics may be updated from any thread.</p>
+ */
+public interface Metric {
+
+    /**
+     * Gets the name of this {@link Metric}.
+     *
+     * @return The name of this {@link Metric}
+     */
+    String getName();
+
+    /**
+     * Gets a snapshot of the values held by this {@link Metric}, keyed by
+     * label.
+     *
+     * @return A snapshot of the values held by this {@link Metric}
+     */
+    Map<String, Number> getValues();
+
+    /**
+     * Resets this {@link Metric} to its initial state.
+     */
+    void reset();
+
+}
@@ -0,0 +1,123 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016, Max Roncace <me@caseif.net>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.caseif.flint.steel.util.metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Static registry of all {@link Metric}s maintained by Steel.
+ */
+public final class MetricRegistry {
+
+    private static final Map<String, Metric> METRICS = new ConcurrentSkipListMap<>();
+
+    private MetricRegistry() {
+    }
+
+    /**
+     * Gets the {@link Counter} with the given name, creating it if necessary.
+     *
+     * @param name The name of the {@link Counter}
+     * @return The {@link Counter}
+     * @throws IllegalArgumentException If a {@link Metric} of a different type
+     *     is already registered with the given name
+     */
+    public static Counter counter(String name) throws IllegalArgumentException {
+        return register(name, new Counter(name));
+    }
+
+    /**
+     * Gets the {@link Gauge} with the given name, creating it if necessary.
+     *
+     * @param name The name of the {@link Gauge}
+     * @return The {@link Gauge}
+     * @throws IllegalArgumentException If a {@link Metric} of a different type
+     *     is already registered with the given name
+     */
+    public static Gauge gauge(String name) throws IllegalArgumentException {
+        return register(name, new Gauge(name));
+    }
+
+    /**
+     * Gets the {@link Histogram} with the given name, creating it if
+     * necessary.
+     *
+     * @param name The name of the {@link Histogram}
+     * @return The {@link Histogram}
+     * @throws IllegalArgumentException If a {@link Metric} of a different type
+     *     is already registered with the given name
+     */
+    public static Histogram histogram(String name) throws IllegalArgumentException {
+        return register(name, new Histogram(name));
+    }
+
+    /**
+     * Gets the {@link Timer} with the given name, creating it if necessary.
+     *
+     * @param name The name of the {@link Timer}
+     * @return The {@link Timer}
+     * @throws IllegalArgumentException If a {@link Metric} of a different type
+     *     is already registered with the given name
+     */
+    public static Timer timer(String name) throws IllegalArgumentException {
+        return register(name, new Timer(name));
+    }
+
+    /**
+     * Gets all registered {@link Metric}s, sorted by name.
+     *
+     * @return All registered {@link Metric}s
+     */
+    public static List<Metric> getMetrics() {
+        return Collections.unmodifiableList(new ArrayList<>(METRICS.values()));
+    }
+
+    /**
+     * Resets all registered {@link Metric}s.
+     */
+    public static void resetAll() {
+        for (Metric metric : METRICS.values()) {
+            metric.reset();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static synchronized <T extends Metric> T register(String name, T metric) {
+        Metric existing = METRICS.get(name);
+        if (existing == null) {
+            METRICS.put(name, metric);
+            return metric;
+        }
+        if (existing.getClass() != metric.getClass()) {
+            throw new IllegalArgumentException("Metric " + name + " is already registered as a "
+                    + existing.getClass().getSimpleName());
+        }
+        return (T) existing;
+    }
+
+}
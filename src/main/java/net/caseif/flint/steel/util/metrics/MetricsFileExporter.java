@@ -0,0 +1,81 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016, Max Roncace <me@caseif.net>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.caseif.flint.steel.util.metrics;
+
+import net.caseif.flint.steel.SteelCore;
+import net.caseif.flint.steel.util.file.DataFiles;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Runner class which periodically writes a snapshot of all registered
+ * {@link Metric}s to a JSON file in Steel's data folder.
+ *
+ * <p>This runner may safely be invoked asynchronously.</p>
+ */
+public class MetricsFileExporter implements Runnable {
+
+    private static final String KEY_TIMESTAMP = "timestamp";
+    private static final String KEY_METRICS = "metrics";
+
+    @Override
+    public void run() {
+        JsonObject json = new JsonObject();
+        json.addProperty(KEY_TIMESTAMP, System.currentTimeMillis());
+        JsonObject metrics = new JsonObject();
+        for (Metric metric : MetricRegistry.getMetrics()) {
+            JsonObject values = new JsonObject();
+            for (Map.Entry<String, Number> e : metric.getValues().entrySet()) {
+                values.add(e.getKey(), new JsonPrimitive(e.getValue()));
+            }
+            metrics.add(metric.getName(), values);
+        }
+        json.add(KEY_METRICS, metrics);
+
+        File file = DataFiles.METRICS_EXPORT.getFile();
+        // write to a temporary file first so readers never see a partial snapshot
+        File temp = new File(file.getPath() + ".tmp");
+        try {
+            try (Writer writer = new OutputStreamWriter(new FileOutputStream(temp), StandardCharsets.UTF_8)) {
+                writer.write(json.toString());
+            }
+            if (!temp.renameTo(file) && !(file.delete() && temp.renameTo(file))) {
+                throw new IOException("Failed to move " + temp.getName() + " to " + file.getName());
+            }
+        } catch (IOException ex) {
+            SteelCore.logWarning("Failed to export metrics");
+            ex.printStackTrace();
+        }
+    }
+
+}
@@ -0,0 +1,55 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016, Max Roncace <me@caseif.net>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.caseif.flint.steel.util.metrics;
+
+/**
+ * The {@link Metric}s maintained for Steel's hot paths.
+ */
+public final class SteelMetrics {
+
+    public static final Timer ROLLBACK_LOG = MetricRegistry.timer("rollback.log");
+    public static final Counter ROLLBACK_RECORDS = MetricRegistry.counter("rollback.records");
+    public static final Timer ROLLBACK_RESTORE = MetricRegistry.timer("rollback.restore");
+    public static final Counter ROLLBACK_COMPACTIONS = MetricRegistry.counter("rollback.compactions");
+    public static final Counter ROLLBACK_RECLAIMED_BYTES = MetricRegistry.counter("rollback.reclaimed-bytes");
+
+    public static final Counter SIGN_UPDATES = MetricRegistry.counter("lobby.sign-updates");
+
+    public static final Timer PLAYER_STATE_WRITE = MetricRegistry.timer("player.state-write");
+    public static final Timer PLAYER_STATE_READ = MetricRegistry.timer("player.state-read");
+
+    public static final Timer STORE_IO = MetricRegistry.timer("store.yaml-io");
+
+    public static final Timer CHAT_FILTER = MetricRegistry.timer("chat.filter");
+
+    public static final Timer ROUND_TICK = MetricRegistry.timer("round.tick");
+
+    public static final Counter EVENTS_SKIPPED = MetricRegistry.counter("events.skipped");
+
+    public static final Gauge RESIDENT_CHUNKS = MetricRegistry.gauge("arena.resident-chunks");
+
+    private SteelMetrics() {
+    }
+
+}
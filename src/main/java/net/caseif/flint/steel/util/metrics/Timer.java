@@ -0,0 +1,115 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016, Max Roncace <me@caseif.net>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.caseif.flint.steel.util.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Metric} which records the distribution of durations of an
+ * operation, reported in milliseconds.
+ *
+ * <p>Typical usage:</p>
+ *
+ * <pre>
+ * long start = timer.start();
+ * try {
+ *     // timed operation
+ * } finally {
+ *     timer.stop(start);
+ * }
+ * </pre>
+ */
+public class Timer implements Metric {
+
+    private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final String name;
+    private final Histogram histogram;
+
+    Timer(String name) {
+        this.name = name;
+        this.histogram = new Histogram(name);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets a timestamp marking the start of a timed operation.
+     *
+     * @return The timestamp to pass to {@link Timer#stop(long)}
+     */
+    public long start() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Records the duration of an operation which began at the given
+     * timestamp.
+     *
+     * @param start The timestamp returned by {@link Timer#start()}
+     */
+    public void stop(long start) {
+        histogram.record(System.nanoTime() - start);
+    }
+
+    /**
+     * Records the given duration.
+     *
+     * @param nanos The duration in nanoseconds
+     */
+    public void record(long nanos) {
+        histogram.record(nanos);
+    }
+
+    /**
+     * Gets the number of durations recorded.
+     *
+     * @return The number of durations recorded
+     */
+    public long getCount() {
+        return histogram.getCount();
+    }
+
+    @Override
+    public Map<String, Number> getValues() {
+        Map<String, Number> values = new LinkedHashMap<>();
+        for (Map.Entry<String, Number> e : histogram.getValues().entrySet()) {
+            // everything but the count is a duration
+            values.put(e.getKey().equals("count") ? "count" : e.getKey() + "-ms",
+                    e.getKey().equals("count") ? e.getValue() : e.getValue().doubleValue() / NANOS_PER_MILLI);
+        }
+        return values;
+    }
+
+    @Override
+    public void reset() {
+        histogram.reset();
+    }
+
+}
@@ -0,0 +1,89 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016, Max Roncace <me@caseif.net>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.caseif.flint.steel.util.profiler;
+
+import net.caseif.flint.steel.util.metrics.Histogram;
+
+/**
+ * Timing data for a single profiled section of code over a sliding window.
+ *
+ * <p>The window is divided into a fixed number of slots, each holding a
+ * {@link Histogram}. Durations are recorded into the current slot, and the
+ * oldest slot is cleared and reused whenever the window advances.</p>
+ */
+public class ProfiledSection {
+
+    private final String name;
+    private final Histogram[] slots;
+
+    private volatile int current;
+
+    ProfiledSection(String name, int slotCount) {
+        this.name = name;
+        this.slots = new Histogram[slotCount];
+        for (int i = 0; i < slotCount; i++) {
+            slots[i] = new Histogram(name);
+        }
+    }
+
+    /**
+     * Gets the name of this {@link ProfiledSection}.
+     *
+     * @return The name of this {@link ProfiledSection}
+     */
+    public String getName() {
+        return name;
+    }
+
+    void record(long nanos) {
+        slots[current].record(nanos);
+    }
+
+    void advance() {
+        int next = (current + 1) % slots.length;
+        slots[next].reset();
+        current = next;
+    }
+
+    void reset() {
+        for (Histogram slot : slots) {
+            slot.reset();
+        }
+    }
+
+    /**
+     * Gets a {@link Histogram} of all durations recorded within the current
+     * window.
+     *
+     * @return A {@link Histogram} of the durations within the current window
+     */
+    public Histogram getWindow() {
+        Histogram window = new Histogram(name);
+        for (Histogram slot : slots) {
+            window.add(slot);
+        }
+        return window;
+    }
+
+}
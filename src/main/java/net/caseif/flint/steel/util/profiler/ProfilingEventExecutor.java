@@ -0,0 +1,72 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016, Max Roncace <me@caseif.net>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.caseif.flint.steel.util.profiler;
+
+import org.bukkit.event.Event;
+import org.bukkit.event.EventException;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.EventExecutor;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * {@link EventExecutor} which invokes an event handler reflectively, as
+ * Bukkit's own executor does, and records the time spent in it with the
+ * {@link SteelProfiler}.
+ */
+class ProfilingEventExecutor implements EventExecutor {
+
+    private final Method method;
+    private final Class<? extends Event> eventClass;
+    private final ProfiledSection section;
+
+    ProfilingEventExecutor(Method method, Class<? extends Event> eventClass, ProfiledSection section) {
+        this.method = method;
+        this.eventClass = eventClass;
+        this.section = section;
+        method.setAccessible(true);
+    }
+
+    @Override
+    public void execute(Listener listener, Event event) throws EventException {
+        // handler lists are shared with subclasses of the event type
+        if (!eventClass.isInstance(event)) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            method.invoke(listener, event);
+        } catch (InvocationTargetException ex) {
+            throw new EventException(ex.getCause());
+        } catch (IllegalAccessException ex) {
+            throw new EventException(ex);
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            section.record(elapsed);
+            SteelProfiler.recordEvent(event.getClass(), elapsed);
+        }
+    }
+
+}
@@ -0,0 +1,238 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016, Max Roncace <me@caseif.net>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.caseif.flint.steel.util.profiler;
+
+import net.caseif.flint.steel.util.metrics.Histogram;
+
+import org.bukkit.Bukkit;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Toggleable profiler for Steel's event handlers and scheduled tasks.
+ *
+ * <p>While disabled, Steel's listeners are registered with Bukkit as usual
+ * and the only remaining cost is a volatile read in each profiled task. When
+ * enabled, every {@link EventHandler} of the given listeners is re-registered
+ * through a {@link ProfilingEventExecutor} so that it is timed individually.
+ * Durations are kept over a sliding window.</p>
+ *
+ * <p>This class must only be enabled or disabled from the main thread.</p>
+ */
+public final class SteelProfiler {
+
+    private static final int SLOT_COUNT = 6;
+    private static final long TICKS_PER_SECOND = 20L;
+
+    private static final ConcurrentMap<String, ProfiledSection> SECTIONS = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<Class<? extends Event>, ProfiledSection> EVENTS = new ConcurrentHashMap<>();
+
+    private static volatile boolean enabled;
+
+    private static BukkitTask rotationTask;
+
+    private SteelProfiler() {
+    }
+
+    /**
+     * Gets whether the profiler is currently enabled.
+     *
+     * @return Whether the profiler is currently enabled
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enables the profiler, re-registering the given listeners' handlers so
+     * that they are timed.
+     *
+     * @param plugin The {@link Plugin} which owns the listeners
+     * @param listeners The {@link Listener}s to profile
+     * @param windowSeconds The length of the sliding window in seconds
+     * @throws IllegalStateException If the profiler is already enabled
+     */
+    public static void enable(Plugin plugin, Collection<Listener> listeners, long windowSeconds)
+            throws IllegalStateException {
+        if (enabled) {
+            throw new IllegalStateException("Profiler is already enabled");
+        }
+        reset();
+        for (Listener listener : listeners) {
+            HandlerList.unregisterAll(listener);
+            registerProfiled(plugin, listener);
+        }
+        long slotTicks = Math.max(windowSeconds * TICKS_PER_SECOND / SLOT_COUNT, 1);
+        rotationTask = Bukkit.getScheduler().runTaskTimer(plugin, new Runnable() {
+            @Override
+            public void run() {
+                for (ProfiledSection section : SECTIONS.values()) {
+                    section.advance();
+                }
+                for (ProfiledSection section : EVENTS.values()) {
+                    section.advance();
+                }
+            }
+        }, slotTicks, slotTicks);
+        enabled = true;
+    }
+
+    /**
+     * Disables the profiler, restoring the standard registration of the given
+     * listeners.
+     *
+     * @param plugin The {@link Plugin} which owns the listeners
+     * @param listeners The {@link Listener}s which were profiled
+     * @throws IllegalStateException If the profiler is not enabled
+     */
+    public static void disable(Plugin plugin, Collection<Listener> listeners) throws IllegalStateException {
+        if (!enabled) {
+            throw new IllegalStateException("Profiler is not enabled");
+        }
+        enabled = false;
+        rotationTask.cancel();
+        rotationTask = null;
+        for (Listener listener : listeners) {
+            HandlerList.unregisterAll(listener);
+            Bukkit.getPluginManager().registerEvents(listener, plugin);
+        }
+    }
+
+    /**
+     * Records the duration of a scheduled task if the profiler is enabled.
+     *
+     * @param name The name of the task
+     * @param start The {@link System#nanoTime()} at which the task started
+     */
+    public static void recordTask(String name, long start) {
+        if (!enabled) {
+            return;
+        }
+        getSection(SECTIONS, name, name).record(System.nanoTime() - start);
+    }
+
+    static void recordEvent(Class<? extends Event> eventClass, long nanos) {
+        getSection(EVENTS, eventClass, eventClass.getSimpleName()).record(nanos);
+    }
+
+    /**
+     * Clears all data recorded by the profiler.
+     */
+    public static void reset() {
+        for (ProfiledSection section : SECTIONS.values()) {
+            section.reset();
+        }
+        for (ProfiledSection section : EVENTS.values()) {
+            section.reset();
+        }
+    }
+
+    /**
+     * Gets the handlers and tasks which spent the most time executing within
+     * the current window, in descending order.
+     *
+     * @param limit The maximum number of entries to return
+     * @return The windows of the most expensive sections
+     */
+    public static List<Histogram> getWorstSections(int limit) {
+        return getTop(SECTIONS.values(), limit, new Comparator<Histogram>() {
+            @Override
+            public int compare(Histogram a, Histogram b) {
+                return Long.compare(b.getSum(), a.getSum());
+            }
+        });
+    }
+
+    /**
+     * Gets the event types which were handled most often by Steel within the
+     * current window, in descending order.
+     *
+     * @param limit The maximum number of entries to return
+     * @return The windows of the most frequently handled event types
+     */
+    public static List<Histogram> getBusiestEvents(int limit) {
+        return getTop(EVENTS.values(), limit, new Comparator<Histogram>() {
+            @Override
+            public int compare(Histogram a, Histogram b) {
+                return Long.compare(b.getCount(), a.getCount());
+            }
+        });
+    }
+
+    private static List<Histogram> getTop(Collection<ProfiledSection> sections, int limit,
+                                          Comparator<Histogram> comparator) {
+        List<Histogram> windows = new ArrayList<>();
+        for (ProfiledSection section : sections) {
+            Histogram window = section.getWindow();
+            if (window.getCount() > 0) {
+                windows.add(window);
+            }
+        }
+        Collections.sort(windows, comparator);
+        return windows.size() > limit ? windows.subList(0, limit) : windows;
+    }
+
+    private static <K> ProfiledSection getSection(ConcurrentMap<K, ProfiledSection> map, K key, String name) {
+        ProfiledSection section = map.get(key);
+        if (section == null) {
+            section = new ProfiledSection(name, SLOT_COUNT);
+            ProfiledSection existing = map.putIfAbsent(key, section);
+            if (existing != null) {
+                section = existing;
+            }
+        }
+        return section;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void registerProfiled(Plugin plugin, Listener listener) {
+        // Steel's listeners don't inherit handlers, so declared methods are sufficient
+        for (Method method : listener.getClass().getDeclaredMethods()) {
+            EventHandler handler = method.getAnnotation(EventHandler.class);
+            if (handler == null || method.getParameterTypes().length != 1
+                    || !Event.class.isAssignableFrom(method.getParameterTypes()[0])) {
+                continue;
+            }
+            Class<? extends Event> eventClass = (Class<? extends Event>) method.getParameterTypes()[0];
+            String name = listener.getClass().getSimpleName() + "#" + method.getName();
+            Bukkit.getPluginManager().registerEvent(eventClass, listener, handler.priority(),
+                    new ProfilingEventExecutor(method, eventClass, getSection(SECTIONS, name, name)), plugin,
+                    handler.ignoreCancelled());
+        }
+    }
+
+}